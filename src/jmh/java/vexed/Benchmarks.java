@@ -0,0 +1,35 @@
+package vexed;
+
+import java.nio.file.Path;
+import java.util.function.Supplier;
+
+/**
+ * Turns benchmark parameters into the objects they name.
+ */
+final class Benchmarks {
+
+    private Benchmarks() {
+    }
+
+    static BoardFactory boardFactory(String name) {
+        return switch (name) {
+            case "MAP" -> BoardFactory.MAP;
+            case "BIT" -> BoardFactory.BIT;
+            case "COLUMN" -> BoardFactory.COLUMN;
+            default -> throw new IllegalArgumentException("unknown board implementation: " + name);
+        };
+    }
+
+    static Supplier<Solver> solver(String name) {
+        return switch (name) {
+            case "bfs" -> BfsSolver::new;
+            case "stream" -> StreamSolver::new;
+            case "astar" -> AStarSolver::new;
+            case "ida-star" -> IdaStarSolver::new;
+            case "parallel-bfs" -> ParallelBfsSolver::new;
+            case "portfolio" -> PortfolioSolver::new;
+            case "external-bfs" -> () -> new ExternalBfsSolver(Path.of(System.getProperty("java.io.tmpdir")));
+            default -> throw new IllegalArgumentException("unknown solver: " + name);
+        };
+    }
+}
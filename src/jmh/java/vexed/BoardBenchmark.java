@@ -0,0 +1,121 @@
+package vexed;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The operations a solver performs on every board it visits.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+    @Param({"MAP", "BIT", "COLUMN"})
+    public String implementation;
+
+    @Param({"HELLISH", "BENCHMARK"})
+    public String level;
+
+    private final MoveCache moveCache = new MoveCache(10);
+    private final BlockCache blockCache = new BlockCache();
+    private final PositionSupplier positionSupplier = new CachingPositionSupplier();
+
+    private BoardFactory boardFactory;
+    private Board board;
+    private Board equalBoard;
+    private Move move;
+    private final IntMoveList moves = new IntMoveList();
+    private String layout;
+
+    @Setup
+    public void setUp() {
+        boardFactory = Benchmarks.boardFactory(implementation);
+        board = settledBoard();
+        equalBoard = settledBoard();
+        move = board.getAvailableMoves().iterator().next();
+        layout = board.toString();
+    }
+
+    /**
+     * A board one move in, so that it has settled the way boards met
+     * during a search have.
+     */
+    private Board settledBoard() {
+        final var initial = TestBoards.build(TestBoards.CORPUS.get(level), positionSupplier, blockCache, moveCache,
+                boardFactory);
+        return initial.apply(initial.getAvailableMoves().iterator().next());
+    }
+
+    @Benchmark
+    public Board apply() {
+        return board.apply(move);
+    }
+
+    @Benchmark
+    public Collection<Move> getAvailableMoves() {
+        return board.getAvailableMoves();
+    }
+
+    @Benchmark
+    public int getAvailablePackedMoves() {
+        moves.clear();
+        board.getAvailableMoves(moves);
+        return moves.size();
+    }
+
+    @Benchmark
+    public void applyMoves(Blackhole blackhole) {
+        board.applyMoves().forEach(blackhole::consume);
+    }
+
+    /**
+     * Generates and applies every move, the way a solver expands a board.
+     * Run with {@code -prof gc} to see what each expansion allocates.
+     */
+    @Benchmark
+    public void expand(Blackhole blackhole) {
+        for (final var available : board.getAvailableMoves()) {
+            blackhole.consume(board.apply(available));
+        }
+    }
+
+    @Benchmark
+    public void expandPacked(Blackhole blackhole) {
+        moves.clear();
+        board.getAvailableMoves(moves);
+        for (var i = 0; i < moves.size(); i++) {
+            blackhole.consume(board.apply(moves.get(i)));
+        }
+    }
+
+    @Benchmark
+    public int boardHashCode() {
+        return board.hashCode();
+    }
+
+    @Benchmark
+    public boolean boardEquals() {
+        return board.equals(equalBoard);
+    }
+
+    @Benchmark
+    public Board fromString() {
+        return MapBoard.fromString(layout, positionSupplier, blockCache, moveCache, boardFactory);
+    }
+}
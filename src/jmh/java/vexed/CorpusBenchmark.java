@@ -0,0 +1,71 @@
+package vexed;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Solvers over the generated corpus, one solution length at a time, to
+ * show how their cost grows with the depth of the solution. The corpus is
+ * read from the directory in the {@code vexed.corpus} system property,
+ * {@code corpus} by default, as written by {@link LevelGenerator}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class CorpusBenchmark {
+    @Param({"bfs", "astar", "ida-star"})
+    public String solver;
+
+    @Param({"04", "08", "12", "16"})
+    public String depth;
+
+    @Param({"BIT"})
+    public String implementation;
+
+    private Solver instance;
+    private List<Board> boards;
+
+    @Setup
+    public void setUp() throws IOException {
+        instance = Benchmarks.solver(solver).get();
+        final var file = Path.of(System.getProperty("vexed.corpus", "corpus"), "v" + LevelGenerator.VERSION,
+                "depth-" + depth + ".txt");
+        final var positionSupplier = new CachingPositionSupplier();
+        final var blockCache = new BlockCache();
+        final var moveCache = new MoveCache(10);
+        final var boardFactory = Benchmarks.boardFactory(implementation);
+        boards = LevelPack.read(file).stream()
+                .map(level -> MapBoard.fromString(level.layout(), positionSupplier, blockCache, moveCache,
+                        boardFactory))
+                .toList();
+    }
+
+    /**
+     * Solves every level of the chosen length.
+     */
+    @Benchmark
+    public void solve(Blackhole blackhole) {
+        for (final var board : boards) {
+            blackhole.consume(instance.solve(board));
+        }
+    }
+}
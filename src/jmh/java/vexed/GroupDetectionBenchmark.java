@@ -0,0 +1,49 @@
+package vexed;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link MapBoard#findBlockGroups()} on boards packed with blocks. Run
+ * with the GC profiler to see the allocation rate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroupDetectionBenchmark {
+    private static final String[][] CROWDED = {
+            {"ABABABAB", "BABABABA", "ABABABAB", "BABABABA", "ABABABAB", "BABABABA", "ABABABAB", "BABABABA"},
+            {"AABBCCDD", "ABBCCDDA", "BBCCDDAA", "BCCDDAAB", "CCDDAABB", "CDDAABBC", "DDAABBCC", "DAABBCCD"},
+            {"ABCDABCD", "BCDABCDA", "AAAABBBB", "CDABCDAB", "DABCDABC", "CCCCDDDD", "ABCDABCD", "BCDABCDA"},
+    };
+
+    @Param({"0", "1", "2"})
+    public int crowded;
+
+    private MapBoard board;
+
+    @Setup
+    public void setUp() {
+        board = (MapBoard) TestBoards.build(CROWDED[crowded], new CachingPositionSupplier(), new BlockCache(),
+                new MoveCache(10), BoardFactory.MAP);
+    }
+
+    @Benchmark
+    public int[] findBlockGroups() {
+        return board.findBlockGroups();
+    }
+}
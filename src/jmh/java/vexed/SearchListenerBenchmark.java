@@ -0,0 +1,72 @@
+package vexed;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * What listening to a search costs: the same solves with no listener,
+ * with one that ignores every callback and with one that reads the
+ * statistics it is given.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchListenerBenchmark {
+    @Param({"bfs", "astar"})
+    public String solver;
+
+    @Param({"EVIL", "BENCHMARK"})
+    public String level;
+
+    @Param({"none", "ignoring", "reading"})
+    public String listener;
+
+    private Solver instance;
+    private Board board;
+    private SearchListener searchListener;
+    private long read;
+
+    @Setup
+    public void setUp() {
+        instance = Benchmarks.solver(solver).get();
+        board = TestBoards.build(TestBoards.CORPUS.get(level), new CachingPositionSupplier(), new BlockCache(),
+                new MoveCache(10), BoardFactory.BIT);
+        searchListener = switch (listener) {
+            case "none" -> SearchListener.NONE;
+            case "ignoring" -> new SearchListener() {
+            };
+            case "reading" -> new SearchListener() {
+                @Override
+                public void progress(SearchStats stats) {
+                    read += stats.getNodesGenerated();
+                }
+
+                @Override
+                public void depthReached(int depth, SearchStats stats) {
+                    read += stats.getFrontierSize(depth);
+                }
+            };
+            default -> throw new IllegalArgumentException("unknown listener: " + listener);
+        };
+    }
+
+    @Benchmark
+    public Solution solve() {
+        return instance.solve(board, searchListener);
+    }
+}
@@ -0,0 +1,56 @@
+package vexed;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Solvers over the named boards. By default a few representative solvers
+ * on the two largest boards with bit boards, which takes a few minutes;
+ * the full sweep over every solver, board and implementation takes hours
+ * and is asked for with JMH's -p option, e.g.
+ * {@code -p solver=bfs,stream,astar,ida-star,parallel-bfs,portfolio,external-bfs
+ * -p level=TRIVIAL,NON_TRIVIAL,HELLISH,EVIL,BENCHMARK -p implementation=MAP,BIT,COLUMN}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class SolverBenchmark {
+    @Param({"bfs", "astar", "parallel-bfs"})
+    public String solver;
+
+    @Param({"EVIL", "BENCHMARK"})
+    public String level;
+
+    @Param({"BIT"})
+    public String implementation;
+
+    private Solver instance;
+    private Board board;
+
+    @Setup
+    public void setUp() {
+        instance = Benchmarks.solver(solver).get();
+        board = TestBoards.build(TestBoards.CORPUS.get(level), new CachingPositionSupplier(), new BlockCache(),
+                new MoveCache(10), Benchmarks.boardFactory(implementation));
+    }
+
+    @Benchmark
+    public Solution solve() {
+        return instance.solve(board);
+    }
+}
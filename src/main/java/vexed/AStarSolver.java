@@ -0,0 +1,86 @@
+package vexed;
+
+import java.util.function.Supplier;
+
+/**
+ * Solves using A* search, expanding boards in order of moves made plus a
+ * lower bound on the moves still needed. With an admissible and consistent
+ * {@link Heuristic} the first solved board taken from the queue is reached
+ * by a shortest solution.
+ */
+public class AStarSolver implements Solver {
+    private final Heuristic heuristic;
+    private final Supplier<VisitedSet> visitedSets;
+
+    public AStarSolver() {
+        this(Heuristic.COLOUR_DISTANCE);
+    }
+
+    public AStarSolver(Heuristic heuristic) {
+        this(heuristic, VisitedSet::onHeap);
+    }
+
+    public AStarSolver(Heuristic heuristic, Supplier<VisitedSet> visitedSets) {
+        this.heuristic = heuristic;
+        this.visitedSets = visitedSets;
+    }
+
+    @Override
+    public Solution solve(Board board) throws UnsolveableBoardException {
+        return solve(board, SearchListener.NONE);
+    }
+
+    @Override
+    public Solution solve(Board board, SearchListener listener) throws UnsolveableBoardException {
+        final var open = new BucketQueue<SearchNode>();
+        final var closed = visitedSets.get();
+        final var moves = new IntMoveList();
+        final var stats = new SearchStats(listener);
+        offer(SearchNode.root(board), open, stats);
+
+        while (!open.isEmpty()) {
+            Cancellation.check();
+            final var node = open.poll();
+
+            if (node.getBoard().isSolved()) {
+                return new Solution(node.getMoveHistory(), closed, stats);
+            } else if (closed.add(node.getBoard())) {
+                expand(node, open, closed, moves, stats);
+            } else {
+                stats.duplicate();
+            }
+        }
+
+        throw new UnsolveableBoardException("cannot solve board", closed.falsePositiveProbability());
+    }
+
+    private void expand(SearchNode node, BucketQueue<SearchNode> open, VisitedSet closed, IntMoveList moves,
+                        SearchStats stats) {
+        stats.expanded(node.getDepth());
+        stats.visited(closed);
+        moves.clear();
+        node.getBoard().getAvailableMoves(moves);
+        for (var i = 0; i < moves.size(); i++) {
+            final var child = node.child(moves.get(i));
+
+            if (!closed.contains(child.getBoard())) {
+                offer(child, open, stats);
+            } else {
+                stats.generated(child.getDepth());
+                stats.duplicate();
+            }
+        }
+        node.release();
+    }
+
+    private void offer(SearchNode node, BucketQueue<SearchNode> open, SearchStats stats) {
+        stats.generated(node.getDepth());
+        final var estimate = node.getBoard().isDead() ? Heuristic.UNSOLVABLE : heuristic.estimate(node.getBoard());
+
+        if (estimate == Heuristic.UNSOLVABLE) {
+            stats.pruned();
+        } else {
+            open.add(node.getDepth() + estimate, node);
+        }
+    }
+}
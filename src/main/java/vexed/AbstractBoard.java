@@ -0,0 +1,99 @@
+package vexed;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Equality, hashing and printing shared by the board implementations.
+ * Everything here is defined in terms of {@link #getBlockAt(Position)},
+ * the Zobrist hash and the state key, so boards of different
+ * implementations compare equal when their contents are the same.
+ */
+abstract class AbstractBoard implements Board {
+
+    abstract PositionSupplier getPositionSupplier();
+
+    abstract MoveCache getMoveCache();
+
+    Iterable<Position> positions() {
+        return new PositionSequence(getWidth(), getHeight(), getPositionSupplier());
+    }
+
+    @Override
+    public byte[] getStateKey() {
+        final var key = new byte[getWidth() * getHeight()];
+        var i = 0;
+
+        for (final var position : positions()) {
+            final var block = getBlockAt(position);
+            key[i++] = block == null ? 0 : (byte) block.symbol();
+        }
+
+        return key;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        } else if (!(o instanceof Board other)) {
+            return false;
+        } else if (getWidth() != other.getWidth() || getHeight() != other.getHeight()
+                   || getZobristHash() != other.getZobristHash()) {
+            return false;
+        } else {
+            return Arrays.equals(getStateKey(), other.getStateKey());
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(getZobristHash());
+    }
+
+    @Override
+    public String toString() {
+        final var builder = new StringBuilder();
+
+        for (final var position : positions()) {
+            final var block = getBlockAt(position);
+            builder.append(block == null ? "." : block.symbol());
+
+            if (position.column() == getWidth() - 1)
+                builder.append("\n");
+        }
+
+        return builder.toString();
+    }
+
+    private record PositionSequence(int width, int height, PositionSupplier positionSupplier)
+            implements Iterable<Position> {
+
+        public Iterator<Position> iterator() {
+            return new Iterator<>() {
+                int row;
+                int column;
+
+                public Position next() {
+                    final var position = positionSupplier.getPosition(row, column);
+
+                    if (column == width - 1) {
+                        column = 0;
+                        row++;
+                    } else {
+                        column++;
+                    }
+
+                    return position;
+                }
+
+                public boolean hasNext() {
+                    return row < height && column < width;
+                }
+
+                public void remove() {
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package vexed;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a solver on a virtual thread of its own for
+ * {@link Solver#solveAsync}. Whatever completes the future first, the
+ * search, the deadline or a caller cancelling it, the search thread is
+ * interrupted, so a search still running stops at its next
+ * {@link Cancellation} check and shuts down any executor it started. The
+ * deadline is a task on one shared daemon thread, taken off its queue as
+ * soon as the future completes so it holds on to neither the future nor
+ * the search statistics until the deadline would have passed.
+ */
+final class AsyncSolve {
+    static final ScheduledThreadPoolExecutor DEADLINES = new ScheduledThreadPoolExecutor(1,
+            Thread.ofPlatform().name("solve-deadline").daemon().factory());
+
+    static {
+        DEADLINES.setRemoveOnCancelPolicy(true);
+    }
+
+    private AsyncSolve() {
+    }
+
+    static CompletableFuture<Solution> start(Solver solver, Board board, Duration deadline) {
+        final var future = new CompletableFuture<Solution>();
+        final var progress = new Progress();
+        final var worker = Thread.ofVirtual().name("solver").unstarted(() -> {
+            try {
+                future.complete(solver.solve(board, progress));
+            } catch (final Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+
+        final var timeout = DEADLINES.schedule(
+                () -> future.completeExceptionally(new DeadlineExceededException(progress.latest)),
+                deadline.toNanos(), TimeUnit.NANOSECONDS);
+        future.whenComplete((solution, failure) -> {
+            timeout.cancel(false);
+            worker.interrupt();
+        });
+        worker.start();
+        return future;
+    }
+
+    /**
+     * Keeps the latest statistics the search reported.
+     */
+    private static final class Progress implements SearchListener {
+        private volatile SearchStats latest = new SearchStats().snapshot();
+
+        @Override
+        public void progress(SearchStats stats) {
+            latest = stats;
+        }
+
+        @Override
+        public void depthReached(int depth, SearchStats stats) {
+            latest = stats;
+        }
+    }
+}
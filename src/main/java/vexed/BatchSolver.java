@@ -0,0 +1,159 @@
+package vexed;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Solves many levels at once, one per worker thread, and writes a JSON
+ * line for each level as it finishes. Only a couple of levels per worker
+ * are queued at a time, so a large pack is never held as boards all at
+ * once. Each level is solved through {@link Solver#solveAsync}; one still
+ * running when its time budget runs out is interrupted, which the solvers
+ * notice through {@link Cancellation}, and reported as timed out along
+ * with how deep it got and how many nodes it explored.
+ */
+public class BatchSolver {
+    private static final int QUEUED_PER_THREAD = 2;
+
+    private final Supplier<Solver> solvers;
+    private final int threads;
+    private final Duration budget;
+    private final BlockCache blockCache = new BlockCache();
+    private final PositionSupplier positionSupplier = new CachingPositionSupplier();
+    private final MoveCache moveCache = new MoveCache(10);
+
+    public BatchSolver(Supplier<Solver> solvers, int threads, Duration budget) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("need at least one thread");
+        }
+        this.solvers = solvers;
+        this.threads = threads;
+        this.budget = budget;
+    }
+
+    /**
+     * Solves every level, returning once all of their results are written.
+     * Results come in the order levels finish, not the order given.
+     */
+    public void solve(Iterable<Level> levels, PrintStream out) {
+        final var workers = Executors.newFixedThreadPool(threads);
+        final var queue = new Semaphore(QUEUED_PER_THREAD * threads);
+
+        try {
+            for (final var level : levels) {
+                queue.acquire();
+                workers.execute(() -> {
+                    try {
+                        final var line = solve(level).toJson();
+                        synchronized (out) {
+                            out.println(line);
+                        }
+                    } finally {
+                        queue.release();
+                    }
+                });
+            }
+            queue.acquire(QUEUED_PER_THREAD * threads);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("batch cancelled");
+        } finally {
+            workers.shutdownNow();
+        }
+        out.flush();
+    }
+
+    private Result solve(Level level) {
+        final var start = System.nanoTime();
+        final Board board;
+        try {
+            board = MapBoard.fromString(level.layout(), positionSupplier, blockCache, moveCache,
+                    boardFactory(level.layout()));
+        } catch (final RuntimeException e) {
+            return new Result(level, "error", null, null, String.valueOf(e), System.nanoTime() - start);
+        }
+
+        final var search = solvers.get().solveAsync(board, budget);
+        try {
+            return new Result(level, "solved", search.get(), null, null, System.nanoTime() - start);
+        } catch (final InterruptedException e) {
+            search.cancel(true);
+            Thread.currentThread().interrupt();
+            return new Result(level, "timeout", null, null, null, System.nanoTime() - start);
+        } catch (final ExecutionException e) {
+            final var nanos = System.nanoTime() - start;
+            return switch (e.getCause()) {
+                case DeadlineExceededException timeout -> new Result(level, "timeout", null, timeout.getStats(), null,
+                        nanos);
+                case CancellationException cancelled -> new Result(level, "timeout", null, null, null, nanos);
+                case UnsolveableBoardException unsolvable -> new Result(level, "unsolvable", null, null, null, nanos);
+                case Throwable failure -> new Result(level, "error", null, null, String.valueOf(failure), nanos);
+            };
+        }
+    }
+
+    private static BoardFactory boardFactory(String layout) {
+        final var end = layout.indexOf('\n');
+        final var width = end < 0 ? layout.length() : end;
+        return width <= Long.SIZE ? BoardFactory.BIT : BoardFactory.MAP;
+    }
+
+    /**
+     * @param partial what a search that ran out of time got done, if known
+     */
+    private record Result(Level level, String status, Solution solution, SearchStats partial, String message,
+                          long nanos) {
+
+        String toJson() {
+            final var json = new StringBuilder("{\"level\":").append(quote(level.name()))
+                    .append(",\"status\":").append(quote(status));
+
+            if (solution != null) {
+                final var moves = solution.getMoveHistory().getMoves();
+                json.append(",\"depth\":").append(moves.size()).append(",\"moves\":[");
+                for (var i = 0; i < moves.size(); i++) {
+                    final var move = moves.get(i);
+                    json.append(i == 0 ? "[" : ",[").append(move.position().row())
+                            .append(',').append(move.position().column())
+                            .append(',').append(quote(move.direction().toString())).append(']');
+                }
+                json.append("],\"expanded\":").append(solution.getStats().getNodesExpanded())
+                        .append(",\"generated\":").append(solution.getStats().getNodesGenerated());
+            }
+            if (partial != null) {
+                json.append(",\"reached\":").append(Math.max(0, partial.getMaxDepth()))
+                        .append(",\"expanded\":").append(partial.getNodesExpanded())
+                        .append(",\"generated\":").append(partial.getNodesGenerated());
+            }
+            if (message != null) {
+                json.append(",\"message\":").append(quote(message));
+            }
+
+            return json.append(",\"millis\":").append(String.format("%.3f", nanos / 1e6)).append('}').toString();
+        }
+
+        private static String quote(String text) {
+            final var quoted = new StringBuilder("\"");
+            for (final var c : text.toCharArray()) {
+                switch (c) {
+                    case '"' -> quoted.append("\\\"");
+                    case '\\' -> quoted.append("\\\\");
+                    case '\n' -> quoted.append("\\n");
+                    default -> {
+                        if (c < ' ') {
+                            quoted.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            quoted.append(c);
+                        }
+                    }
+                }
+            }
+            return quoted.append('"').toString();
+        }
+    }
+}
@@ -1,56 +1,78 @@
 package vexed;
 
-import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.Queue;
-import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * Solves using breadth-first search.
  */
 public class BfsSolver implements Solver {
-    private final Queue<Board> _queue = new LinkedList<>();
-    private final Set<Board> _seenBoards = new HashSet<>();
+    private final Supplier<VisitedSet> _visitedSets;
+
+    public BfsSolver() {
+        this(VisitedSet::onHeap);
+    }
+
+    public BfsSolver(Supplier<VisitedSet> visitedSets) {
+        _visitedSets = visitedSets;
+    }
 
     public Solution solve(Board initialBoard) {
-        push(initialBoard);
+        return solve(initialBoard, SearchListener.NONE);
+    }
 
-        while (!_queue.isEmpty()) {
-            final var board = pop();
+    @Override
+    public Solution solve(Board initialBoard, SearchListener listener) {
+        final Queue<SearchNode> queue = new LinkedList<>();
+        final var seenBoards = _visitedSets.get();
+        final var moves = new IntMoveList();
+        final var stats = new SearchStats(listener);
+        offer(SearchNode.root(initialBoard), queue, stats);
+
+        while (!queue.isEmpty()) {
+            Cancellation.check();
+            final var node = pop(queue);
+            final var board = node.getBoard();
 
             if (board.isSolved()) {
-                return new Solution(board.getMoveHistory(), countSeenBoards());
+                return new Solution(node.getMoveHistory(), seenBoards, stats);
+            } else if (seenBoards.add(board)) {
+                explore(node, queue, seenBoards, moves, stats);
             } else {
-                if (!alreadySaw(board)) {
-                    explore(board);
-                }
+                stats.duplicate();
             }
         }
 
-        throw new UnsolveableBoardException("cannot solve board");
-    }
-
-    private int countSeenBoards() {
-        return _seenBoards.size();
+        throw new UnsolveableBoardException("cannot solve board", seenBoards.falsePositiveProbability());
     }
 
-    private void explore(Board board) {
-        _seenBoards.add(board);
-        for (var move : board.getAvailableMoves()) {
-            var newBoard = board.apply(move);
-            push(newBoard);
+    private void explore(SearchNode node, Queue<SearchNode> queue, VisitedSet seenBoards, IntMoveList moves,
+                         SearchStats stats) {
+        stats.expanded(node.getDepth());
+        stats.visited(seenBoards);
+        moves.clear();
+        node.getBoard().getAvailableMoves(moves);
+        for (var i = 0; i < moves.size(); i++) {
+            offer(node.child(moves.get(i)), queue, stats);
         }
+        node.release();
     }
 
-    private boolean alreadySaw(Board board) {
-        return _seenBoards.contains(board);
+    private void offer(SearchNode node, Queue<SearchNode> queue, SearchStats stats) {
+        stats.generated(node.getDepth());
+        if (node.getBoard().isDead()) {
+            stats.pruned();
+        } else {
+            push(node, queue);
+        }
     }
 
-    private void push(Board board) {
-        _queue.add(board);
+    private void push(SearchNode node, Queue<SearchNode> queue) {
+        queue.add(node);
     }
 
-    private Board pop() {
-        return _queue.poll();
+    private SearchNode pop(Queue<SearchNode> queue) {
+        return queue.poll();
     }
 }
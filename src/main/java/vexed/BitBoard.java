@@ -0,0 +1,379 @@
+package vexed;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import static vexed.Direction.*;
+
+/**
+ * Board that keeps one bit per cell. Walls are stored once per level and
+ * shared by every board derived from it; each block colour has a mask per
+ * row, with bit n standing for column n. Boards are limited to 64 columns.
+ */
+public class BitBoard extends AbstractBoard {
+    private static final int MAX_WIDTH = Long.SIZE;
+
+    private final Layout layout;
+    /** Colour-major row masks: the cells of colour c in row r are at {@code c * height + r}. */
+    private final long[] masks;
+    private long zobristHash;
+    private boolean dead;
+
+    BitBoard(int width, int height, Map<Position, Block> configuration, PositionSupplier positionSupplier,
+             BlockCache blockCache, MoveCache moveCache) {
+        if (width > MAX_WIDTH) {
+            throw new IllegalArgumentException("width cannot exceed " + MAX_WIDTH);
+        }
+
+        final var walls = new long[height];
+        final var ids = new TreeSet<Integer>();
+
+        for (final var entry : configuration.entrySet()) {
+            final var position = entry.getKey();
+            if (position.column() < 0 || position.column() >= width || position.row() < 0 || position.row() >= height) {
+                throw new IllegalArgumentException("position outside of board: " + position);
+            }
+            if (entry.getValue().isWall()) {
+                walls[position.row()] |= bit(position.column());
+            } else {
+                ids.add(blockCache.idOf(entry.getValue().symbol()));
+            }
+        }
+
+        final var palette = new Block[ids.size()];
+        final var colourOfSymbol = new HashMap<Character, Integer>();
+        var colour = 0;
+        for (final var id : ids) {
+            palette[colour] = blockCache.blockWithId(id);
+            colourOfSymbol.put(palette[colour].symbol(), colour++);
+        }
+
+        layout = new Layout(width, height, walls, palette, new DeadStates(width, height, walls), positionSupplier,
+                moveCache);
+        masks = new long[palette.length * height];
+
+        for (final var entry : configuration.entrySet()) {
+            if (!entry.getValue().isWall()) {
+                final var position = entry.getKey();
+                masks[colourOfSymbol.get(entry.getValue().symbol()) * height + position.row()] |= bit(position.column());
+            }
+        }
+
+        zobristHash = Zobrist.hash(width, height, configuration);
+        dead = computeDead();
+    }
+
+    private BitBoard(BitBoard board) {
+        layout = board.layout;
+        masks = board.masks.clone();
+        zobristHash = board.zobristHash;
+    }
+
+    @Override
+    public int getWidth() {
+        return layout.width;
+    }
+
+    @Override
+    public int getHeight() {
+        return layout.height;
+    }
+
+    @Override
+    PositionSupplier getPositionSupplier() {
+        return layout.positionSupplier;
+    }
+
+    @Override
+    MoveCache getMoveCache() {
+        return layout.moveCache;
+    }
+
+    @Override
+    public boolean isSolved() {
+        for (final var mask : masks) {
+            if (mask != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isDead() {
+        return dead;
+    }
+
+    @Override
+    public long getZobristHash() {
+        return zobristHash;
+    }
+
+    @Override
+    public byte[] getStateKey() {
+        final var width = layout.width;
+        final var height = layout.height;
+        final var key = new byte[width * height];
+
+        for (var row = 0; row < height; row++) {
+            fillKey(key, row, layout.walls[row], Block.WALL_SYMBOL);
+            for (var colour = 0; colour < layout.palette.length; colour++) {
+                fillKey(key, row, masks[colour * height + row], layout.palette[colour].symbol());
+            }
+        }
+
+        return key;
+    }
+
+    /**
+     * Feeds the blocks to the dead state check straight from the masks.
+     */
+    private boolean computeDead() {
+        final var scan = layout.deadStates.scan();
+        for (var colour = 0; colour < layout.palette.length; colour++) {
+            final var symbol = layout.palette[colour].symbol();
+            for (var row = 0; row < layout.height; row++) {
+                for (var remaining = masks[colour * layout.height + row]; remaining != 0; remaining &= remaining - 1) {
+                    scan.block(row * layout.width + Long.numberOfTrailingZeros(remaining), symbol);
+                }
+            }
+        }
+        return scan.isDead();
+    }
+
+    private void fillKey(byte[] key, int row, long columns, char symbol) {
+        for (var remaining = columns; remaining != 0; remaining &= remaining - 1) {
+            key[row * layout.width + Long.numberOfTrailingZeros(remaining)] = (byte) symbol;
+        }
+    }
+
+    @Override
+    public Block getBlockAt(Position position) {
+        final var row = position.row();
+        final var column = position.column();
+
+        if (!withinBoardBounds(row, column)) {
+            return null;
+        } else if ((layout.walls[row] & bit(column)) != 0) {
+            return Block.WALL;
+        }
+
+        final var colour = colourAt(row, column);
+        return colour < 0 ? null : layout.palette[colour];
+    }
+
+    @Override
+    public Collection<Move> getAvailableMoves() {
+        final var moves = new ArrayList<Move>();
+
+        for (var row = layout.height - 1; row >= 0; row--) {
+            final var movable = movableRow(row);
+            final var free = ~(movable | layout.walls[row]) & layout.columnMask();
+            addMoves(moves, row, movable & (free << 1), Left);
+            addMoves(moves, row, movable & (free >>> 1), Right);
+        }
+
+        return moves;
+    }
+
+    private void addMoves(Collection<Move> moves, int row, long columns, Direction direction) {
+        for (var remaining = columns; remaining != 0; remaining &= remaining - 1) {
+            moves.add(layout.moveCache.moveFor(row, Long.numberOfTrailingZeros(remaining), direction));
+        }
+    }
+
+    @Override
+    public void getAvailableMoves(IntMoveList moves) {
+        for (var row = layout.height - 1; row >= 0; row--) {
+            final var movable = movableRow(row);
+            final var free = ~(movable | layout.walls[row]) & layout.columnMask();
+            addMoves(moves, row, movable & (free << 1), Left);
+            addMoves(moves, row, movable & (free >>> 1), Right);
+        }
+    }
+
+    private void addMoves(IntMoveList moves, int row, long columns, Direction direction) {
+        for (var remaining = columns; remaining != 0; remaining &= remaining - 1) {
+            moves.add(PackedMove.pack(row, Long.numberOfTrailingZeros(remaining), direction, layout.width));
+        }
+    }
+
+    @Override
+    public Stream<Board> applyMoves() {
+        return getAvailableMoves().stream().map(this::apply);
+    }
+
+    @Override
+    public BitBoard apply(Move move) {
+        return apply(move.position().row(), move.position().column(), move.direction());
+    }
+
+    @Override
+    public BitBoard apply(int packedMove) {
+        final var cell = PackedMove.cell(packedMove);
+        return apply(cell / layout.width, cell % layout.width, PackedMove.direction(packedMove));
+    }
+
+    @Override
+    public Move toMove(int packedMove) {
+        return layout.moveCache.moveFor(packedMove, layout.width);
+    }
+
+    private BitBoard apply(int row, int column, Direction direction) {
+        final var targetRow = row + direction.rowDelta();
+        final var targetColumn = column + direction.columnDelta();
+
+        if (!withinBoardBounds(row, column) || colourAt(row, column) < 0
+            || !withinBoardBounds(targetRow, targetColumn) || isOccupied(targetRow, targetColumn)) {
+            throw new IllegalMoveException();
+        }
+
+        final var resultingBoard = new BitBoard(this);
+        resultingBoard.doMove(row, column, targetRow, targetColumn);
+        resultingBoard.settleAndClear();
+        resultingBoard.dead = resultingBoard.computeDead();
+        return resultingBoard;
+    }
+
+    private void doMove(int row, int column, int targetRow, int targetColumn) {
+        final var colour = colourAt(row, column);
+        final var symbol = layout.palette[colour].symbol();
+        masks[colour * layout.height + row] &= ~bit(column);
+        masks[colour * layout.height + targetRow] |= bit(targetColumn);
+        zobristHash ^= Zobrist.key(row, column, symbol) ^ Zobrist.key(targetRow, targetColumn, symbol);
+    }
+
+    private void settleAndClear() {
+        do {
+            settleBlocks();
+        } while (clearPositions(findBlockGroups()));
+    }
+
+    /**
+     * Drops blocks row by row from the bottom up, so every row below the
+     * one being dropped has already come to rest.
+     */
+    private void settleBlocks() {
+        final var height = layout.height;
+
+        for (var row = height - 2; row >= 0; row--) {
+            var falling = movableRow(row);
+
+            for (var from = row; from < height - 1 && falling != 0; from++) {
+                falling &= ~occupiedRow(from + 1);
+
+                for (var i = from; i < masks.length; i += height) {
+                    final var dropped = masks[i] & falling;
+                    if (dropped != 0) {
+                        masks[i] ^= dropped;
+                        masks[i + 1] |= dropped;
+                        rehashDrop(i / height, from, dropped);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A block belongs to a group to be cleared exactly when one of its
+     * neighbours has the same colour, so the groups are the union of the
+     * horizontal and vertical same-colour pairs. The result is laid out
+     * like {@link #masks}.
+     */
+    private long[] findBlockGroups() {
+        final var height = layout.height;
+        final var groups = new long[masks.length];
+
+        for (var i = 0; i < masks.length; i++) {
+            final var cells = masks[i];
+            final var horizontal = cells & (cells >>> 1);
+            groups[i] |= horizontal | (horizontal << 1);
+
+            if ((i + 1) % height != 0) {
+                final var vertical = cells & masks[i + 1];
+                groups[i] |= vertical;
+                groups[i + 1] |= vertical;
+            }
+        }
+
+        return groups;
+    }
+
+    private void rehashDrop(int colour, int row, long columns) {
+        final var symbol = layout.palette[colour].symbol();
+        for (var remaining = columns; remaining != 0; remaining &= remaining - 1) {
+            final var column = Long.numberOfTrailingZeros(remaining);
+            zobristHash ^= Zobrist.key(row, column, symbol) ^ Zobrist.key(row + 1, column, symbol);
+        }
+    }
+
+    private boolean clearPositions(long[] groups) {
+        final var height = layout.height;
+        var cleared = false;
+
+        for (var i = 0; i < masks.length; i++) {
+            if (groups[i] != 0) {
+                masks[i] &= ~groups[i];
+                cleared = true;
+
+                final var symbol = layout.palette[i / height].symbol();
+                for (var remaining = groups[i]; remaining != 0; remaining &= remaining - 1) {
+                    zobristHash ^= Zobrist.key(i % height, Long.numberOfTrailingZeros(remaining), symbol);
+                }
+            }
+        }
+
+        return cleared;
+    }
+
+    private int colourAt(int row, int column) {
+        final var bit = bit(column);
+
+        for (var colour = 0; colour < layout.palette.length; colour++) {
+            if ((masks[colour * layout.height + row] & bit) != 0) {
+                return colour;
+            }
+        }
+
+        return -1;
+    }
+
+    private long movableRow(int row) {
+        var cells = 0L;
+        for (var i = row; i < masks.length; i += layout.height) {
+            cells |= masks[i];
+        }
+        return cells;
+    }
+
+    private long occupiedRow(int row) {
+        return movableRow(row) | layout.walls[row];
+    }
+
+    private boolean isOccupied(int row, int column) {
+        return (occupiedRow(row) & bit(column)) != 0;
+    }
+
+    private boolean withinBoardBounds(int row, int column) {
+        return column >= 0 && column < layout.width && row >= 0 && row < layout.height;
+    }
+
+    private static long bit(int column) {
+        return 1L << column;
+    }
+
+    /**
+     * The parts of a board that never change while it is being solved.
+     */
+    private record Layout(int width, int height, long[] walls, Block[] palette, DeadStates deadStates,
+                          PositionSupplier positionSupplier, MoveCache moveCache) {
+
+        long columnMask() {
+            return width == MAX_WIDTH ? -1L : (1L << width) - 1;
+        }
+    }
+}
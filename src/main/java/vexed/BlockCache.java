@@ -3,17 +3,32 @@ package vexed;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * One shared {@link Block} per symbol. Safe to share between threads;
+ * it is only used while reading boards, so plain locking is enough.
+ */
 public class BlockCache {
     private final List<Character> chars = new ArrayList<>();
     private final List<Block> blocks = new ArrayList<>();
 
-    public Block blockFor(char symbol) {
+    public synchronized Block blockFor(char symbol) {
+        return blocks.get(idOf(symbol));
+    }
+
+    /**
+     * Small dense id for a symbol, stable for the life of the cache.
+     */
+    public synchronized int idOf(char symbol) {
         var i = chars.indexOf(symbol);
         if (i < 0) {
             i = chars.size();
             chars.add(symbol);
             blocks.add(new Block(symbol));
         }
-        return blocks.get(i);
+        return i;
+    }
+
+    public synchronized Block blockWithId(int id) {
+        return blocks.get(id);
     }
 }
@@ -0,0 +1,223 @@
+package vexed;
+
+/**
+ * Blocked Bloom filter over board hashes. Each hash picks one 512-bit
+ * block, a cache line, and sets a few bits within it, so a lookup touches
+ * one line of memory. The filter is sized up front for an expected number
+ * of states and never grows. Whatever the board size it takes about 1.2
+ * bytes per state for a 1% rate, 2.7 for one in ten thousand and 4.8 for
+ * one in a million, against a whole state key and more for an exact set.
+ * <p>
+ * There are no false negatives, but a new state may be taken for one
+ * already seen and dropped, and a search that drops states can return a
+ * longer solution than needed or miss one altogether. Each add weighs the
+ * chance of that from how full its block was, and
+ * {@link #falsePositiveProbability()} turns the running total into the
+ * chance that it happened at least once. Filling the filter past the
+ * states it was sized for is allowed and shows up there.
+ */
+class BloomVisitedSet implements VisitedSet {
+    private static final int BLOCK_WORDS = 8;
+    private static final int BLOCK_BITS = BLOCK_WORDS * Long.SIZE;
+    private static final int WORD_SHIFT = Integer.numberOfTrailingZeros(Long.SIZE);
+    private static final int MAX_HASHES = 16;
+    private static final long MAX_BLOCKS = (Integer.MAX_VALUE - BLOCK_WORDS) / BLOCK_WORDS;
+    /** Odd multipliers, one per bit a state sets. */
+    private static final int[] SALTS = new int[MAX_HASHES];
+
+    static {
+        for (var i = 0; i < MAX_HASHES; i++) {
+            SALTS[i] = (int) mix(i + 1) | 1;
+        }
+    }
+
+    private final long[] words;
+    private final int blocks;
+    private final int hashes;
+    private int size;
+    /** Sum over the states added of the chance each would have been reported seen. */
+    private double expectedFalsePositives;
+
+    BloomVisitedSet(long expectedStates, double falsePositiveRate) {
+        if (expectedStates < 1) {
+            throw new IllegalArgumentException("expected states must be positive: " + expectedStates);
+        } else if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("false positive rate must be in (0, 1): " + falsePositiveRate);
+        }
+
+        var bestBlocks = Long.MAX_VALUE;
+        var bestHashes = 1;
+        for (var k = 1; k <= MAX_HASHES; k++) {
+            final var count = blocksNeeded(expectedStates, falsePositiveRate, k);
+            if (count < bestBlocks) {
+                bestBlocks = count;
+                bestHashes = k;
+            }
+        }
+        if (bestBlocks > MAX_BLOCKS) {
+            throw new IllegalArgumentException("filter too large for " + expectedStates + " states at rate "
+                                               + falsePositiveRate);
+        }
+
+        blocks = (int) bestBlocks;
+        hashes = bestHashes;
+        words = new long[blocks * BLOCK_WORDS];
+    }
+
+    /**
+     * The fewest blocks that keep the rate at or under the target with k
+     * bits per state, or more than {@link #MAX_BLOCKS} if none do.
+     */
+    private static long blocksNeeded(long states, double target, int k) {
+        // an unblocked filter needs a little less, so start from half of that
+        final var unblocked = -states * Math.log(target) / (Math.log(2) * Math.log(2)) / BLOCK_BITS;
+        var high = Math.max(1, (long) (unblocked / 2));
+        while (rate((double) states / high, k) > target) {
+            if (high > MAX_BLOCKS) {
+                return high;
+            }
+            high *= 2;
+        }
+
+        var low = high / 2;
+        while (high - low > 1) {
+            final var middle = (low + high) >>> 1;
+            if (rate((double) states / middle, k) > target) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * The false positive rate with k bits per state and the given mean
+     * number of states per block. States fall into blocks unevenly, with
+     * a Poisson spread around the mean, and the fullest blocks account for
+     * most false positives, so the rate is averaged over that spread; at
+     * low rates this asks for noticeably more room than an unblocked
+     * filter would.
+     */
+    private static double rate(double statesPerBlock, int k) {
+        final var lastCount = statesPerBlock + 12 * Math.sqrt(statesPerBlock) + 12;
+        final var bitStaysClear = Math.log1p(-1.0 / BLOCK_BITS);
+        var logPoisson = -statesPerBlock;
+        var rate = 0.0;
+
+        for (var count = 0; count <= lastCount; count++) {
+            if (count > 0) {
+                logPoisson += Math.log(statesPerBlock / count);
+            }
+            rate += Math.exp(logPoisson) * Math.pow(-Math.expm1(k * count * bitStaysClear), k);
+        }
+        return rate;
+    }
+
+    @Override
+    public boolean add(Board board) {
+        final var hash = mix(hash(board));
+        final var block = block(hash);
+        final var fill = fill(block);
+
+        var added = false;
+        for (var i = 0; i < hashes; i++) {
+            final var bit = bit(hash, i);
+            final var word = block + (bit >>> WORD_SHIFT);
+            final var mask = 1L << bit;
+            if ((words[word] & mask) == 0) {
+                words[word] |= mask;
+                added = true;
+            }
+        }
+
+        if (added) {
+            size++;
+            expectedFalsePositives += Math.pow((double) fill / BLOCK_BITS, hashes);
+        }
+        return added;
+    }
+
+    @Override
+    public boolean contains(Board board) {
+        final var hash = mix(hash(board));
+        final var block = block(hash);
+
+        for (var i = 0; i < hashes; i++) {
+            final var bit = bit(hash, i);
+            if ((words[block + (bit >>> WORD_SHIFT)] & 1L << bit) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long bytesUsed() {
+        return (long) words.length * Long.BYTES;
+    }
+
+    @Override
+    public double falsePositiveProbability() {
+        return -Math.expm1(-expectedFalsePositives);
+    }
+
+    /**
+     * Bits set per block probe.
+     */
+    int hashes() {
+        return hashes;
+    }
+
+    /**
+     * The chance that a state never added would be reported as seen now.
+     */
+    double falsePositiveRate() {
+        var rate = 0.0;
+        for (var block = 0; block < words.length; block += BLOCK_WORDS) {
+            rate += Math.pow((double) fill(block) / BLOCK_BITS, hashes);
+        }
+        return rate / blocks;
+    }
+
+    private int fill(int block) {
+        var count = 0;
+        for (var i = block; i < block + BLOCK_WORDS; i++) {
+            count += Long.bitCount(words[i]);
+        }
+        return count;
+    }
+
+    /**
+     * The first word of the block picked by the high half of the hash.
+     */
+    private int block(long hash) {
+        return (int) ((hash >>> 32) * blocks >>> 32) * BLOCK_WORDS;
+    }
+
+    /**
+     * The i-th bit within the block: one from each word in turn, starting
+     * from a word picked by the bottom of the high half, which barely
+     * sways the block, and at a bit picked by the top of the low half
+     * times a salt of its own.
+     */
+    private static int bit(long hash, int i) {
+        final var word = ((int) (hash >>> Integer.SIZE) + i) & BLOCK_WORDS - 1;
+        return word << WORD_SHIFT | ((int) hash * SALTS[i]) >>> Integer.SIZE - WORD_SHIFT;
+    }
+
+    /**
+     * The murmur3 finaliser, so every bit of the hash feeds both the block
+     * and the bits within it.
+     */
+    private static long mix(long hash) {
+        hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+        hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+}
@@ -13,11 +13,53 @@ public interface Board {
 
     Collection<Move> getAvailableMoves();
 
+    /**
+     * Adds the moves {@link #getAvailableMoves()} would return to the list,
+     * packed as by {@link PackedMove} for this board's width, without
+     * making a {@link Move} for each.
+     */
+    default void getAvailableMoves(IntMoveList moves) {
+        for (final var move : getAvailableMoves()) {
+            moves.add(PackedMove.pack(move, getWidth()));
+        }
+    }
+
     boolean isSolved();
 
+    /**
+     * True when the board can be shown to have no solution, so a search
+     * need not expand it.
+     */
+    boolean isDead();
+
     Stream<Board> applyMoves();
 
     Board apply(Move move);
 
-    MoveHistory getMoveHistory();
+    /**
+     * Applies a move packed for this board's width.
+     */
+    default Board apply(int packedMove) {
+        return apply(toMove(packedMove));
+    }
+
+    /**
+     * The move a packed move for this board's width stands for.
+     */
+    default Move toMove(int packedMove) {
+        return PackedMove.unpack(packedMove, getWidth());
+    }
+
+    /**
+     * 64-bit Zobrist hash of the board's contents, walls included.
+     */
+    long getZobristHash();
+
+    /**
+     * Canonical encoding of the board's contents: one byte per cell in
+     * row-major order, zero for an empty cell and the block's symbol
+     * otherwise. Two boards with the same dimensions are equal exactly when
+     * their keys are. Symbols are assumed to fit in a byte.
+     */
+    byte[] getStateKey();
 }
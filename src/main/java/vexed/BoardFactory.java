@@ -0,0 +1,18 @@
+package vexed;
+
+import java.util.Map;
+
+/**
+ * Builds a board of some implementation from a parsed layout, so callers
+ * such as {@link MapBoard#fromString} need not know which one they get.
+ */
+@FunctionalInterface
+public interface BoardFactory {
+    BoardFactory MAP = (width, height, layout, positionSupplier, blockCache, moveCache) ->
+            new MapBoard(width, height, layout, positionSupplier, moveCache);
+    BoardFactory BIT = BitBoard::new;
+    BoardFactory COLUMN = ColumnBoard::new;
+
+    Board create(int width, int height, Map<Position, Block> layout, PositionSupplier positionSupplier,
+                 BlockCache blockCache, MoveCache moveCache);
+}
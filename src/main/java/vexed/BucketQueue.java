@@ -0,0 +1,44 @@
+package vexed;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Priority queue for small non-negative integer priorities, with one
+ * bucket per priority. Within a bucket the most recently added item comes
+ * out first.
+ */
+final class BucketQueue<T> {
+    private final List<ArrayDeque<T>> buckets = new ArrayList<>();
+    private int lowest;
+    private int size;
+
+    void add(int priority, T item) {
+        while (buckets.size() <= priority) {
+            buckets.add(new ArrayDeque<>());
+        }
+        buckets.get(priority).push(item);
+        lowest = Math.min(lowest, priority);
+        size++;
+    }
+
+    T poll() {
+        if (size == 0) {
+            return null;
+        }
+        while (buckets.get(lowest).isEmpty()) {
+            lowest++;
+        }
+        size--;
+        return buckets.get(lowest).pop();
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+}
@@ -1,36 +1,67 @@
 package vexed;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hands out one shared {@link Position} per cell, from a flat table
+ * indexed by {@code row * columns + column}, and one shared {@link Grid}
+ * per board size. Safe to share between threads without locking: lookups
+ * read the current table, and a thread that needs a bigger one builds it,
+ * keeping the positions already handed out, and installs it with a
+ * compare-and-set.
+ */
 public class CachingPositionSupplier implements PositionSupplier {
 
-    private Position[][] positions = new Position[10][10];
+    private final AtomicReference<Table> table = new AtomicReference<>(Table.covering(null, 10, 10));
+    private final ConcurrentMap<Long, Grid> grids = new ConcurrentHashMap<>();
 
     CachingPositionSupplier() {
-        populate();
     }
 
     @Override
     public Position getPosition(int row, int col) {
-        if (row >= positions.length || col >= positions[row].length) {
-            grow(row, col);
+        var current = table.get();
+        while (row >= current.rows || col >= current.columns) {
+            final var grown = Table.covering(current, Math.max(row + 1, current.rows),
+                    Math.max(col + 1, current.columns));
+            current = table.compareAndSet(current, grown) ? grown : table.get();
         }
 
-        return positions[row][col];
+        return current.get(row, col);
+    }
+
+    @Override
+    public Grid grid(int width, int height) {
+        final var key = (long) width << 32 | height;
+        final var grid = grids.get(key);
+        return grid != null ? grid : grids.computeIfAbsent(key, size -> new Grid(width, height, this));
     }
 
-    private void populate() {
-        for (var row = 0; row < positions.length; row++) {
-            final var position = positions[row];
+    private record Table(int rows, int columns, Position[] positions) {
 
-            for (var col = 0; col < position.length; col++) {
-                position[col] = new Position(col, row);
+        /**
+         * A table of the given size, holding the same positions as an
+         * existing smaller one where they overlap.
+         */
+        static Table covering(Table existing, int rows, int columns) {
+            final var positions = new Position[rows * columns];
+
+            for (var row = 0; row < rows; row++) {
+                for (var column = 0; column < columns; column++) {
+                    positions[row * columns + column] =
+                            existing != null && row < existing.rows && column < existing.columns
+                                    ? existing.get(row, column)
+                                    : new Position(column, row);
+                }
             }
+
+            return new Table(rows, columns, positions);
         }
-    }
 
-    private void grow(int desiredRow, int desiredCol) {
-        final var rowCount = Math.max(desiredRow, positions.length);
-        final var colCount = Math.max(positions[0].length, desiredCol);
-        positions = new Position[rowCount][colCount];
-        populate();
+        Position get(int row, int column) {
+            return positions[row * columns + column];
+        }
     }
 }
@@ -0,0 +1,20 @@
+package vexed;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Cooperative cancellation for searches: a solver stops at its next check
+ * once the thread running it has been interrupted. The interrupt status is
+ * left set for the caller to see.
+ */
+final class Cancellation {
+
+    private Cancellation() {
+    }
+
+    static void check() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("search cancelled");
+        }
+    }
+}
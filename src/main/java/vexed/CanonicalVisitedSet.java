@@ -0,0 +1,141 @@
+package vexed;
+
+import java.util.Arrays;
+
+/**
+ * Visited set that files every board under a canonical form of its state
+ * key, so that boards needing the same number of moves for the same
+ * reason are only explored once. Colours are renumbered in the order they
+ * first appear in the key, since which colour is which never matters.
+ * When the walls are the same seen in a mirror, the board is also
+ * compared with its mirror image and the smaller of the two keys is kept.
+ * <p>
+ * Solvers only ever compare boards through the set, so the moves they
+ * return are still the ones made on the board they were given. A set
+ * serves boards of one wall layout only, fixed by the first board it sees.
+ */
+final class CanonicalVisitedSet implements VisitedSet {
+    private static final int SYMBOLS = 1 << Byte.SIZE;
+
+    private final PackedVisitedSet states;
+    private final int[] relabelling = new int[SYMBOLS];
+    private int width = -1;
+    /** Which cells of the layout are walls. */
+    private boolean[] walls;
+    private boolean mirrored;
+
+    CanonicalVisitedSet(PackedVisitedSet states) {
+        this.states = states;
+    }
+
+    @Override
+    public boolean add(Board board) {
+        final var key = canonicalKey(board);
+        return states.add(hash(board.getWidth(), key), key);
+    }
+
+    @Override
+    public boolean contains(Board board) {
+        final var key = canonicalKey(board);
+        return states.contains(hash(board.getWidth(), key), key);
+    }
+
+    @Override
+    public int size() {
+        return states.size();
+    }
+
+    @Override
+    public long bytesUsed() {
+        return states.bytesUsed();
+    }
+
+    @Override
+    public long hash(Board board) {
+        return hash(board.getWidth(), canonicalKey(board));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the board's walls are not those
+     *                                  of the boards seen before
+     */
+    byte[] canonicalKey(Board board) {
+        final var key = board.getStateKey();
+        if (width < 0) {
+            width = board.getWidth();
+            walls = new boolean[key.length];
+            for (var cell = 0; cell < key.length; cell++) {
+                walls[cell] = key[cell] == Block.WALL_SYMBOL;
+            }
+            mirrored = wallsAreSymmetric(key, width);
+        } else if (board.getWidth() != width || key.length != walls.length) {
+            throw new IllegalArgumentException("board is not the size of the boards seen before");
+        }
+
+        final var plain = relabel(key, false);
+        if (!mirrored) {
+            return plain;
+        }
+
+        final var mirror = relabel(key, true);
+        return Arrays.compareUnsigned(mirror, plain) < 0 ? mirror : plain;
+    }
+
+    /**
+     * The key with colours numbered from one in order of appearance,
+     * read either as it is or mirrored.
+     */
+    private byte[] relabel(byte[] key, boolean mirror) {
+        Arrays.fill(relabelling, 0);
+        final var result = new byte[key.length];
+        var next = 1;
+
+        for (var cell = 0; cell < key.length; cell++) {
+            final var from = mirror ? mirrorCell(cell) : cell;
+            final var symbol = key[from] & 0xFF;
+
+            if ((symbol == Block.WALL_SYMBOL) != walls[from]) {
+                throw new IllegalArgumentException("board walls differ from those of the boards seen before");
+            } else if (symbol == 0 || symbol == Block.WALL_SYMBOL) {
+                result[cell] = (byte) symbol;
+            } else {
+                if (relabelling[symbol] == 0) {
+                    relabelling[symbol] = next == Block.WALL_SYMBOL ? ++next : next;
+                    next++;
+                }
+                result[cell] = (byte) relabelling[symbol];
+            }
+        }
+
+        return result;
+    }
+
+    private int mirrorCell(int cell) {
+        final var column = cell % width;
+        return cell - column + width - 1 - column;
+    }
+
+    private static boolean wallsAreSymmetric(byte[] key, int width) {
+        for (var cell = 0; cell < key.length; cell++) {
+            final var column = cell % width;
+            final var mirror = cell - column + width - 1 - column;
+            if ((key[cell] == Block.WALL_SYMBOL) != (key[mirror] == Block.WALL_SYMBOL)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The Zobrist hash the canonical key would have as a board.
+     */
+    private static long hash(int width, byte[] key) {
+        var hash = Zobrist.seed(width, key.length / width);
+        for (var cell = 0; cell < key.length; cell++) {
+            if (key[cell] != 0) {
+                hash ^= Zobrist.key(cell / width, cell % width, (char) (key[cell] & 0xFF));
+            }
+        }
+        return hash;
+    }
+}
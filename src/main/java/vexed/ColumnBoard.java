@@ -0,0 +1,352 @@
+package vexed;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static vexed.Direction.*;
+
+/**
+ * Immutable board kept as one small array of cell symbols per column,
+ * indexed by row. Blocks only ever move within a column or to the one next
+ * to it, so a move copies just the columns it and the settling after it
+ * change; every other column, walls included, is shared with the board it
+ * was made from. There is no limit on the width.
+ */
+public class ColumnBoard extends AbstractBoard {
+    private static final byte EMPTY = 0;
+    private static final byte WALL = (byte) Block.WALL_SYMBOL;
+
+    private final Layout layout;
+    private final byte[][] columns;
+    private final int blocks;
+    private final long zobristHash;
+    private final boolean dead;
+
+    ColumnBoard(int width, int height, Map<Position, Block> configuration, PositionSupplier positionSupplier,
+                BlockCache blockCache, MoveCache moveCache) {
+        final var cells = new byte[width][height];
+        final var palette = new Block[1 << Byte.SIZE];
+        var count = 0;
+
+        for (final var entry : configuration.entrySet()) {
+            final var position = entry.getKey();
+            if (position.column() < 0 || position.column() >= width || position.row() < 0 || position.row() >= height) {
+                throw new IllegalArgumentException("position outside of board: " + position);
+            }
+
+            final var symbol = (byte) entry.getValue().symbol();
+            cells[position.column()][position.row()] = symbol;
+            palette[symbol & 0xFF] = blockCache.blockFor(entry.getValue().symbol());
+            if (symbol != WALL) {
+                count++;
+            }
+        }
+
+        layout = new Layout(width, height, palette, new DeadStates(width, height, walls(cells, width, height)),
+                positionSupplier, moveCache);
+        columns = cells;
+        blocks = count;
+        zobristHash = Zobrist.hash(width, height, configuration);
+        dead = computeDead();
+    }
+
+    private ColumnBoard(Layout layout, byte[][] columns, int blocks, long zobristHash) {
+        this.layout = layout;
+        this.columns = columns;
+        this.blocks = blocks;
+        this.zobristHash = zobristHash;
+        dead = computeDead();
+    }
+
+    /**
+     * Row masks of the walls, or none at all on boards too wide for them,
+     * where {@link DeadStates} only counts blocks.
+     */
+    private static long[] walls(byte[][] cells, int width, int height) {
+        final var walls = new long[height];
+        if (width <= Long.SIZE) {
+            for (var column = 0; column < width; column++) {
+                for (var row = 0; row < height; row++) {
+                    if (cells[column][row] == WALL) {
+                        walls[row] |= 1L << column;
+                    }
+                }
+            }
+        }
+        return walls;
+    }
+
+    @Override
+    public int getWidth() {
+        return layout.width;
+    }
+
+    @Override
+    public int getHeight() {
+        return layout.height;
+    }
+
+    @Override
+    PositionSupplier getPositionSupplier() {
+        return layout.positionSupplier;
+    }
+
+    @Override
+    MoveCache getMoveCache() {
+        return layout.moveCache;
+    }
+
+    /**
+     * The cells of a column, for checking what is shared.
+     */
+    byte[] column(int column) {
+        return columns[column];
+    }
+
+    @Override
+    public boolean isSolved() {
+        return blocks == 0;
+    }
+
+    @Override
+    public boolean isDead() {
+        return dead;
+    }
+
+    @Override
+    public long getZobristHash() {
+        return zobristHash;
+    }
+
+    /**
+     * Feeds the blocks to the dead state check straight from the columns.
+     */
+    private boolean computeDead() {
+        final var scan = layout.deadStates.scan();
+        for (var column = 0; column < layout.width; column++) {
+            final var cells = columns[column];
+            for (var row = 0; row < cells.length; row++) {
+                if (cells[row] != EMPTY && cells[row] != WALL) {
+                    scan.block(row * layout.width + column, cells[row] & 0xFF);
+                }
+            }
+        }
+        return scan.isDead();
+    }
+
+    @Override
+    public byte[] getStateKey() {
+        final var width = layout.width;
+        final var key = new byte[width * layout.height];
+
+        for (var column = 0; column < width; column++) {
+            final var cells = columns[column];
+            for (var row = 0; row < cells.length; row++) {
+                key[row * width + column] = cells[row];
+            }
+        }
+
+        return key;
+    }
+
+    @Override
+    public Block getBlockAt(Position position) {
+        final var row = position.row();
+        final var column = position.column();
+
+        if (!withinBoardBounds(row, column)) {
+            return null;
+        }
+        final var symbol = columns[column][row];
+        return symbol == EMPTY ? null : layout.palette[symbol & 0xFF];
+    }
+
+    @Override
+    public Collection<Move> getAvailableMoves() {
+        final var packed = new IntMoveList();
+        getAvailableMoves(packed);
+
+        final var moves = new ArrayList<Move>(packed.size());
+        for (var i = 0; i < packed.size(); i++) {
+            moves.add(toMove(packed.get(i)));
+        }
+        return moves;
+    }
+
+    @Override
+    public void getAvailableMoves(IntMoveList moves) {
+        for (var row = layout.height - 1; row >= 0; row--) {
+            for (var column = 0; column < layout.width; column++) {
+                if (isBlock(row, column) && isEmpty(row, column - 1)) {
+                    moves.add(PackedMove.pack(row, column, Left, layout.width));
+                }
+            }
+            for (var column = 0; column < layout.width; column++) {
+                if (isBlock(row, column) && isEmpty(row, column + 1)) {
+                    moves.add(PackedMove.pack(row, column, Right, layout.width));
+                }
+            }
+        }
+    }
+
+    @Override
+    public Stream<Board> applyMoves() {
+        return getAvailableMoves().stream().map(this::apply);
+    }
+
+    @Override
+    public ColumnBoard apply(Move move) {
+        return apply(move.position().row(), move.position().column(), move.direction());
+    }
+
+    @Override
+    public ColumnBoard apply(int packedMove) {
+        final var cell = PackedMove.cell(packedMove);
+        return apply(cell / layout.width, cell % layout.width, PackedMove.direction(packedMove));
+    }
+
+    @Override
+    public Move toMove(int packedMove) {
+        return layout.moveCache.moveFor(packedMove, layout.width);
+    }
+
+    private ColumnBoard apply(int row, int column, Direction direction) {
+        final var targetRow = row + direction.rowDelta();
+        final var targetColumn = column + direction.columnDelta();
+
+        if (!withinBoardBounds(row, column) || !isBlock(row, column) || !isEmpty(targetRow, targetColumn)) {
+            throw new IllegalMoveException();
+        }
+
+        final var successor = new Successor();
+        successor.set(targetRow, targetColumn, columns[column][row]);
+        successor.set(row, column, EMPTY);
+
+        do {
+            successor.settle();
+        } while (successor.clear());
+
+        return new ColumnBoard(layout, successor.columns, successor.blocks, successor.hash);
+    }
+
+    private boolean isBlock(int row, int column) {
+        final var symbol = columns[column][row];
+        return symbol != EMPTY && symbol != WALL;
+    }
+
+    private boolean isEmpty(int row, int column) {
+        return withinBoardBounds(row, column) && columns[column][row] == EMPTY;
+    }
+
+    private boolean withinBoardBounds(int row, int column) {
+        return column >= 0 && column < layout.width && row >= 0 && row < layout.height;
+    }
+
+    /**
+     * The board being made by a move. Columns are shared with the parent
+     * until the first write to them.
+     */
+    private final class Successor {
+        final byte[][] columns = ColumnBoard.this.columns.clone();
+        final boolean[] copied = new boolean[layout.width];
+        int blocks = ColumnBoard.this.blocks;
+        long hash = zobristHash;
+        private int[] matched = new int[0];
+
+        void set(int row, int column, byte symbol) {
+            if (!copied[column]) {
+                columns[column] = columns[column].clone();
+                copied[column] = true;
+            }
+
+            final var previous = columns[column][row];
+            if (previous != EMPTY) {
+                hash ^= Zobrist.key(row, column, (char) (previous & 0xFF));
+            }
+            if (symbol != EMPTY) {
+                hash ^= Zobrist.key(row, column, (char) (symbol & 0xFF));
+            }
+            columns[column][row] = symbol;
+        }
+
+        /**
+         * Drops the blocks of each column onto whatever is under them,
+         * working up from the bottom. Columns where nothing falls are
+         * only read.
+         */
+        void settle() {
+            for (var column = 0; column < layout.width; column++) {
+                var floor = -1;
+
+                for (var row = layout.height - 1; row >= 0; row--) {
+                    final var symbol = columns[column][row];
+                    if (symbol == EMPTY) {
+                        floor = floor < 0 ? row : floor;
+                    } else if (symbol == WALL) {
+                        floor = -1;
+                    } else if (floor >= 0) {
+                        set(floor--, column, symbol);
+                        set(row, column, EMPTY);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Clears every block next to one of its own colour, all at once.
+         *
+         * @return whether any block was cleared
+         */
+        boolean clear() {
+            final var height = layout.height;
+            var count = 0;
+
+            for (var column = 0; column < layout.width; column++) {
+                final var cells = columns[column];
+                for (var row = 0; row < height; row++) {
+                    final var symbol = cells[row];
+                    if (symbol == EMPTY || symbol == WALL) {
+                        continue;
+                    }
+                    if (row + 1 < height && cells[row + 1] == symbol) {
+                        count = match(count, column * height + row, column * height + row + 1);
+                    }
+                    if (column + 1 < layout.width && columns[column + 1][row] == symbol) {
+                        count = match(count, column * height + row, (column + 1) * height + row);
+                    }
+                }
+            }
+
+            for (var i = 0; i < count; i++) {
+                final var column = matched[i] / height;
+                final var row = matched[i] % height;
+                if (columns[column][row] != EMPTY) {
+                    set(row, column, EMPTY);
+                    blocks--;
+                }
+            }
+
+            return count > 0;
+        }
+
+        private int match(int count, int cell, int neighbour) {
+            if (count + 2 > matched.length) {
+                matched = Arrays.copyOf(matched, Math.max(8, matched.length * 2));
+            }
+            matched[count] = cell;
+            matched[count + 1] = neighbour;
+            return count + 2;
+        }
+    }
+
+    /**
+     * The parts of a board that never change while it is being solved.
+     * The palette maps a cell's symbol byte to its block.
+     */
+    private record Layout(int width, int height, Block[] palette, DeadStates deadStates,
+                          PositionSupplier positionSupplier, MoveCache moveCache) {
+    }
+}
@@ -1,70 +1,30 @@
 package vexed;
 
-import java.util.*;
-import java.util.concurrent.*;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
+/**
+ * Breadth-first search on every available processor. This used to expand
+ * each layer on a fixed pool of ten threads around one shared visited set;
+ * it is now a {@link ParallelBfsSolver}, kept under its old name.
+ */
 public class ConcurrentSolver implements Solver {
-    private final ExecutorService executorService = Executors.newFixedThreadPool(10);
-    private final Queue<Collection<Board>> queue = new LinkedBlockingQueue<>();
-    private final Set<Board> seenBoards = Collections.synchronizedSet(new HashSet<>());
+    private final ParallelBfsSolver solver;
 
-    @Override
-    public Solution solve(Board rootBoard) throws UnsolveableBoardException {
-        queue.add(List.of(rootBoard));
-
-        while (!queue.isEmpty()) {
-            final var explorationLevel = queue.poll();
-            final var futures = new ArrayList<Future<Collection<Board>>>();
-
-            for (final var board : explorationLevel) {
-                if (board.isSolved()) {
-                    executorService.shutdownNow();
-                    return new Solution(board.getMoveHistory(), seenBoards.size());
-                } else if (!seenBoards.contains(board)) {
-                    seenBoards.add(board);
-                    final var task = new BoardExploreTask(board);
-                    futures.add(executorService.submit(task));
-                }
-            }
-
-            final var nextLevel = mergeResultingBoards(futures);
-
-            if (nextLevel.isEmpty()) {
-                break;
-            }
-
-            queue.add(nextLevel);
-        }
-
-        throw new UnsolveableBoardException();
+    public ConcurrentSolver() {
+        this(VisitedSet::onHeap);
     }
 
-    private Collection<Board> mergeResultingBoards(Collection<Future<Collection<Board>>> futures) {
-        // merge results
-        final Collection<Board> nextLevel = new ArrayList<>();
-
-        for (final var future : futures) {
-            try {
-                nextLevel.addAll(future.get());
-            } catch (final InterruptedException | ExecutionException e) {
-                throw new RuntimeException(e);
-            }
-        }
-
-        return nextLevel;
+    public ConcurrentSolver(Supplier<VisitedSet> visitedSets) {
+        solver = new ParallelBfsSolver(Runtime.getRuntime().availableProcessors(), visitedSets);
     }
 
-    /**
-     * Gets all possible moves from one board, applies them
-     */
-    private record BoardExploreTask(Board parentBoard) implements Callable<Collection<Board>> {
+    @Override
+    public Solution solve(Board rootBoard) throws UnsolveableBoardException {
+        return solver.solve(rootBoard);
+    }
 
-        @Override
-        public Collection<Board> call() {
-            return parentBoard.getAvailableMoves().stream().map(parentBoard::apply).collect(Collectors.toList());
-        }
+    @Override
+    public Solution solve(Board rootBoard, SearchListener listener) throws UnsolveableBoardException {
+        return solver.solve(rootBoard, listener);
     }
 }
-
-
@@ -0,0 +1,180 @@
+package vexed;
+
+import java.util.Arrays;
+
+/**
+ * Recognizes boards that can no longer be solved: some colour has a single
+ * block left, or some block can never get next to another block of its
+ * colour. Blocks only ever move sideways or down, so the cells a block can
+ * reach are bounded by the walls alone; two blocks can only meet if those
+ * regions touch. The regions are worked out once per wall layout and shared
+ * by every board of a level.
+ */
+final class DeadStates {
+    private static final int SYMBOLS = 1 << Byte.SIZE;
+    /**
+     * Working space for one check, one per thread, so that boards can feed
+     * their blocks in straight from their own representation.
+     */
+    private static final ThreadLocal<Scan> SCANS = ThreadLocal.withInitial(Scan::new);
+
+    private final int height;
+    /**
+     * Row masks of the cells each cell's block could reach, ignoring other
+     * blocks: row r of cell c is at {@code c * height + r}. Null when the
+     * board is too wide for row masks.
+     */
+    private final long[] reach;
+
+    DeadStates(int width, int height, long[] walls) {
+        this.height = height;
+        reach = width > Long.SIZE ? null : computeReach(width, height, walls);
+    }
+
+    /**
+     * Reads the walls from the board's state key.
+     */
+    static DeadStates forBoard(Board board) {
+        final var width = board.getWidth();
+        final var height = board.getHeight();
+        final var walls = new long[height];
+
+        if (width <= Long.SIZE) {
+            final var key = board.getStateKey();
+            for (var cell = 0; cell < key.length; cell++) {
+                if (key[cell] == Block.WALL_SYMBOL) {
+                    walls[cell / width] |= 1L << (cell % width);
+                }
+            }
+        }
+
+        return new DeadStates(width, height, walls);
+    }
+
+    boolean isDead(byte[] stateKey) {
+        final var scan = scan();
+        for (var cell = 0; cell < stateKey.length; cell++) {
+            final var symbol = stateKey[cell] & 0xFF;
+            if (symbol != 0 && symbol != Block.WALL_SYMBOL) {
+                scan.block(cell, symbol);
+            }
+        }
+        return scan.isDead();
+    }
+
+    /**
+     * An empty scan of this thread: add each block of a board, in the
+     * cells of its state key, then ask whether the board is dead.
+     */
+    Scan scan() {
+        final var scan = SCANS.get();
+        scan.states = this;
+        scan.blocks = 0;
+        return scan;
+    }
+
+    private boolean canMeet(int first, int second) {
+        final var a = first * height;
+        final var b = second * height;
+
+        for (var row = 0; row < height; row++) {
+            final var other = reach[b + row];
+            var touching = other | (other << 1) | (other >>> 1);
+            if (row > 0) {
+                touching |= reach[b + row - 1];
+            }
+            if (row < height - 1) {
+                touching |= reach[b + row + 1];
+            }
+            if ((reach[a + row] & touching) != 0) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static long[] computeReach(int width, int height, long[] walls) {
+        final var columns = width == Long.SIZE ? -1L : (1L << width) - 1;
+        final var reach = new long[width * height * height];
+
+        for (var row = 0; row < height; row++) {
+            final var free = ~walls[row] & columns;
+            for (var column = 0; column < width; column++) {
+                final var start = 1L << column;
+                if ((free & start) == 0) {
+                    continue;
+                }
+
+                final var base = (row * width + column) * height;
+                var seeds = start;
+                for (var r = row; r < height && seeds != 0; r++) {
+                    final var region = spread(seeds, ~walls[r] & columns);
+                    reach[base + r] = region;
+                    seeds = r + 1 < height ? region & ~walls[r + 1] : 0;
+                }
+            }
+        }
+
+        return reach;
+    }
+
+    /**
+     * Grows the seeds sideways through free cells.
+     */
+    private static long spread(long seeds, long free) {
+        var region = seeds & free;
+        while (true) {
+            final var grown = (region | (region << 1) | (region >>> 1)) & free;
+            if (grown == region) {
+                return region;
+            }
+            region = grown;
+        }
+    }
+
+    static final class Scan {
+        private final int[] counts = new int[SYMBOLS];
+        private int[] cells = new int[32];
+        private int[] symbols = new int[32];
+        private int blocks;
+        private DeadStates states;
+
+        void block(int cell, int symbol) {
+            if (blocks == cells.length) {
+                cells = Arrays.copyOf(cells, blocks * 2);
+                symbols = Arrays.copyOf(symbols, blocks * 2);
+            }
+            cells[blocks] = cell;
+            symbols[blocks++] = symbol;
+            counts[symbol]++;
+        }
+
+        boolean isDead() {
+            var dead = false;
+            for (var i = 0; i < blocks && !dead; i++) {
+                dead = counts[symbols[i]] == 1;
+            }
+            for (var i = 0; i < blocks; i++) {
+                counts[symbols[i]] = 0;
+            }
+
+            return dead || states.reach != null && hasUnreachablePartner();
+        }
+
+        private boolean hasUnreachablePartner() {
+            for (var i = 0; i < blocks; i++) {
+                var partnered = false;
+                for (var j = 0; j < blocks && !partnered; j++) {
+                    partnered = j != i && symbols[j] == symbols[i] && states.canMeet(cells[i], cells[j]);
+                }
+
+                if (!partnered) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+}
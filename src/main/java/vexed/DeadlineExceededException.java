@@ -0,0 +1,28 @@
+package vexed;
+
+/**
+ * Completes the future from {@link Solver#solveAsync} when the deadline
+ * passes before the search finishes, with what the search had done by
+ * then as a best-effort partial result.
+ */
+public class DeadlineExceededException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final transient SearchStats stats;
+
+    DeadlineExceededException(SearchStats stats) {
+        super("deadline passed at depth " + stats.getMaxDepth() + " after " + stats.getNodesExpanded()
+              + " expanded nodes");
+        this.stats = stats;
+    }
+
+    /**
+     * The statistics the search last reported before the deadline: the
+     * deepest it reached and the nodes it had explored, the latter counted
+     * every {@link SearchStats#PROGRESS_INTERVAL} expansions. Null if the
+     * exception was deserialized.
+     */
+    public SearchStats getStats() {
+        return stats;
+    }
+}
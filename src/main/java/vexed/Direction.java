@@ -15,6 +15,14 @@ public enum Direction {
         this.rowDelta = rowDelta;
     }
 
+    int columnDelta() {
+        return colDelta;
+    }
+
+    int rowDelta() {
+        return rowDelta;
+    }
+
     public Position apply(Position position, PositionSupplier supplier) {
         return supplier.getPosition(position.row() + rowDelta, position.column() + colDelta);
     }
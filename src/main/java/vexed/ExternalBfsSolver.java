@@ -0,0 +1,414 @@
+package vexed;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Breadth-first search that keeps its layers on disk instead of the heap.
+ * Each layer is a file of fixed-size records, sorted by state key: the
+ * key, the index of the parent in the previous layer and the move from
+ * it. Successors are collected in memory up to a chunk size, then sorted
+ * and written out as runs. At the end of a layer the runs are merged, and
+ * any state already in an earlier layer is dropped on the way, which is
+ * delayed duplicate detection: the merge does the work a visited set
+ * would. The solution is read back through the parent indices, so the
+ * heap only ever holds one chunk of successors and the depth reachable is
+ * bounded by disk space.
+ */
+public class ExternalBfsSolver implements Solver {
+    private static final int DEFAULT_CHUNK_SIZE = 1 << 18;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int NO_PARENT = -1;
+
+    private final Path directory;
+    private final int chunkSize;
+
+    public ExternalBfsSolver(Path directory) {
+        this(directory, DEFAULT_CHUNK_SIZE);
+    }
+
+    public ExternalBfsSolver(Path directory, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunk size must be positive");
+        }
+        this.directory = directory;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public Solution solve(Board board) throws UnsolveableBoardException {
+        return solve(board, SearchListener.NONE);
+    }
+
+    @Override
+    public Solution solve(Board board, SearchListener listener) throws UnsolveableBoardException {
+        try (var search = new Search(board, listener)) {
+            return search.run();
+        } catch (final ClosedByInterruptException e) {
+            // an interrupt mid-read closes the channel before the next check
+            throw new CancellationException("search cancelled");
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private class Search implements Closeable {
+        private final Board root;
+        private final int width;
+        private final int recordSize;
+        private final SearchStats stats;
+        private final Path workDirectory;
+        private final List<Path> layers = new ArrayList<>();
+        private final PositionSupplier positionSupplier = new CachingPositionSupplier();
+        private final BlockCache blockCache = new BlockCache();
+        private final MoveCache moveCache = new MoveCache(10);
+        private final BoardFactory boardFactory;
+        private long states;
+        private int runs;
+
+        Search(Board root, SearchListener listener) throws IOException {
+            this.root = root;
+            width = root.getWidth();
+            recordSize = root.getWidth() * root.getHeight() + 2 * Integer.BYTES;
+            stats = new SearchStats(listener);
+            boardFactory = width <= Long.SIZE ? BoardFactory.BIT : BoardFactory.MAP;
+            Files.createDirectories(directory);
+            workDirectory = Files.createTempDirectory(directory, "bfs");
+        }
+
+        Solution run() throws IOException {
+            Cancellation.check();
+            stats.generated(0);
+            if (root.isSolved()) {
+                return solution(new MoveHistory());
+            } else if (root.isDead()) {
+                stats.pruned();
+                throw new UnsolveableBoardException("cannot solve board");
+            }
+
+            final var first = workDirectory.resolve("layer-0");
+            try (var writer = new RecordWriter(first)) {
+                writer.write(root.getStateKey(), NO_PARENT, NO_PARENT);
+            }
+            layers.add(first);
+            states = 1;
+
+            for (var depth = 0; ; depth++) {
+                final var outcome = expand(depth);
+                if (outcome instanceof Found found) {
+                    return solution(found.moves());
+                }
+
+                final var next = workDirectory.resolve("layer-" + (depth + 1));
+                final var added = merge(((Runs) outcome).files(), next);
+                if (added == 0) {
+                    throw new UnsolveableBoardException("cannot solve board");
+                }
+                layers.add(next);
+                states += added;
+                stats.visited(states);
+            }
+        }
+
+        /**
+         * Expands every state of a layer into sorted runs of successors,
+         * or stops at the first solved one.
+         */
+        private Outcome expand(int depth) throws IOException {
+            final var chunk = new ArrayList<Record>();
+            final var files = new ArrayList<Path>();
+            final var moves = new IntMoveList();
+
+            try (var reader = new RecordReader(layers.get(depth))) {
+                for (var index = 0; reader.next(); index++) {
+                    Cancellation.check();
+                    final var board = board(reader.key);
+                    stats.expanded(depth);
+
+                    moves.clear();
+                    board.getAvailableMoves(moves);
+                    for (var i = 0; i < moves.size(); i++) {
+                        final var move = moves.get(i);
+                        final var child = board.apply(move);
+                        stats.generated(depth + 1);
+
+                        if (child.isSolved()) {
+                            final var path = path(depth, index);
+                            path.add(board.toMove(move));
+                            return new Found(path);
+                        } else if (child.isDead()) {
+                            stats.pruned();
+                        } else {
+                            chunk.add(new Record(child.getStateKey(), index, move));
+                            if (chunk.size() == chunkSize) {
+                                files.add(writeRun(chunk));
+                            }
+                        }
+                    }
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                files.add(writeRun(chunk));
+            }
+            return new Runs(files);
+        }
+
+        private Path writeRun(List<Record> chunk) throws IOException {
+            chunk.sort(Comparator.comparing(Record::key, Arrays::compareUnsigned));
+            final var file = workDirectory.resolve("run-" + runs++);
+
+            try (var writer = new RecordWriter(file)) {
+                byte[] previous = null;
+                for (final var record : chunk) {
+                    if (previous != null && Arrays.equals(previous, record.key)) {
+                        stats.duplicate();
+                    } else {
+                        writer.write(record.key, record.parent, record.move);
+                        previous = record.key;
+                    }
+                }
+            }
+
+            chunk.clear();
+            return file;
+        }
+
+        /**
+         * Merges the runs into the next layer, keeping one record per state
+         * and none for states in earlier layers.
+         *
+         * @return the number of states in the new layer
+         */
+        private long merge(List<Path> runFiles, Path next) throws IOException {
+            final var runReaders = new PriorityQueue<RecordReader>(
+                    Comparator.comparing((RecordReader reader) -> reader.key, Arrays::compareUnsigned));
+            final var earlier = new ArrayList<RecordReader>();
+            var added = 0L;
+
+            try (var writer = new RecordWriter(next)) {
+                for (final var file : runFiles) {
+                    final var reader = new RecordReader(file);
+                    if (reader.next()) {
+                        runReaders.add(reader);
+                    } else {
+                        reader.close();
+                    }
+                }
+                for (final var layer : layers) {
+                    final var reader = new RecordReader(layer);
+                    earlier.add(reader);
+                    reader.next();
+                }
+
+                byte[] previous = null;
+                while (!runReaders.isEmpty()) {
+                    Cancellation.check();
+                    final var reader = runReaders.poll();
+
+                    if ((previous != null && Arrays.equals(previous, reader.key)) || seenBefore(earlier, reader.key)) {
+                        stats.duplicate();
+                    } else {
+                        writer.write(reader.key, reader.parent, reader.move);
+                        previous = reader.key.clone();
+                        added++;
+                    }
+
+                    if (reader.next()) {
+                        runReaders.add(reader);
+                    } else {
+                        reader.close();
+                    }
+                }
+            } finally {
+                for (final var reader : runReaders) {
+                    reader.close();
+                }
+                for (final var reader : earlier) {
+                    reader.close();
+                }
+                for (final var file : runFiles) {
+                    Files.deleteIfExists(file);
+                }
+            }
+
+            return added;
+        }
+
+        /**
+         * Whether an earlier layer holds the key. The keys come in sorted
+         * order, so each layer is read through once per merge.
+         */
+        private boolean seenBefore(List<RecordReader> earlier, byte[] key) throws IOException {
+            for (final var layer : earlier) {
+                while (!layer.exhausted && Arrays.compareUnsigned(layer.key, key) < 0) {
+                    layer.next();
+                }
+                if (!layer.exhausted && Arrays.equals(layer.key, key)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * The moves leading to a record, read back through its ancestors.
+         */
+        private MoveHistory path(int depth, long index) throws IOException {
+            final var moves = new LinkedList<Move>();
+            final var buffer = ByteBuffer.allocate(recordSize);
+
+            for (var layer = depth; layer > 0; layer--) {
+                try (var channel = FileChannel.open(layers.get(layer), StandardOpenOption.READ)) {
+                    buffer.clear();
+                    channel.read(buffer, index * recordSize);
+                    final var parent = buffer.getInt(recordSize - 2 * Integer.BYTES);
+                    moves.addFirst(root.toMove(buffer.getInt(recordSize - Integer.BYTES)));
+                    index = parent;
+                }
+            }
+
+            final var history = new MoveHistory();
+            moves.forEach(history::add);
+            return history;
+        }
+
+        private Board board(byte[] key) {
+            final var layout = new HashMap<Position, Block>();
+            for (var cell = 0; cell < key.length; cell++) {
+                if (key[cell] != 0) {
+                    layout.put(positionSupplier.getPosition(cell / width, cell % width),
+                            blockCache.blockFor((char) (key[cell] & 0xFF)));
+                }
+            }
+            return boardFactory.create(width, root.getHeight(), layout, positionSupplier, blockCache, moveCache);
+        }
+
+        /**
+         * Room for a whole number of records, at least one.
+         */
+        private int bufferSize() {
+            return Math.max(1, BUFFER_SIZE / recordSize) * recordSize;
+        }
+
+        private Solution solution(MoveHistory moves) {
+            return new Solution(moves, (int) Math.min(states, Integer.MAX_VALUE), recordSize, stats);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try (var files = Files.list(workDirectory)) {
+                for (final var file : (Iterable<Path>) files::iterator) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(workDirectory);
+        }
+
+        private sealed interface Outcome permits Found, Runs {
+        }
+
+        private record Found(MoveHistory moves) implements Outcome {
+        }
+
+        private record Runs(List<Path> files) implements Outcome {
+        }
+
+        private record Record(byte[] key, int parent, int move) {
+        }
+
+        /**
+         * Writes records to a file through a buffer.
+         */
+        private class RecordWriter implements Closeable {
+            private final FileChannel channel;
+            private final ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize());
+
+            RecordWriter(Path file) throws IOException {
+                channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                        StandardOpenOption.WRITE);
+            }
+
+            void write(byte[] key, int parent, int move) throws IOException {
+                if (buffer.remaining() < recordSize) {
+                    flush();
+                }
+                buffer.put(key).putInt(parent).putInt(move);
+            }
+
+            private void flush() throws IOException {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                buffer.clear();
+            }
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    flush();
+                } finally {
+                    channel.close();
+                }
+            }
+        }
+
+        /**
+         * Reads a file of records in order, one record at a time.
+         */
+        private class RecordReader implements Closeable {
+            private final FileChannel channel;
+            private final ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize());
+            final byte[] key = new byte[recordSize - 2 * Integer.BYTES];
+            int parent;
+            int move;
+            boolean exhausted;
+
+            RecordReader(Path file) throws IOException {
+                channel = FileChannel.open(file, StandardOpenOption.READ);
+                buffer.limit(0);
+            }
+
+            boolean next() throws IOException {
+                if (buffer.remaining() < recordSize && !fill()) {
+                    exhausted = true;
+                    return false;
+                }
+                buffer.get(key);
+                parent = buffer.getInt();
+                move = buffer.getInt();
+                return true;
+            }
+
+            private boolean fill() throws IOException {
+                buffer.compact();
+                while (buffer.position() < recordSize && channel.read(buffer) >= 0) {
+                    // keep reading until a whole record is in
+                }
+                buffer.flip();
+                return buffer.remaining() >= recordSize;
+            }
+
+            @Override
+            public void close() throws IOException {
+                channel.close();
+            }
+        }
+    }
+}
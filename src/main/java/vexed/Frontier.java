@@ -0,0 +1,131 @@
+package vexed;
+
+import java.util.ArrayList;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * One layer of a breadth-first search: the boards first reached after the
+ * same number of moves. A layer is held as an array and streamed through
+ * a spliterator that knows its size and splits in halves, so the boards of
+ * a layer can be worked on in parallel. The next layer is only built when
+ * asked for. Boards that cannot be solved are left out, and each state
+ * appears in at most one layer.
+ */
+public final class Frontier {
+    private static final int CHARACTERISTICS =
+            Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.DISTINCT | Spliterator.IMMUTABLE;
+
+    private final SearchNode[] nodes;
+    /** The boards of the nodes, kept here as the nodes drop theirs once expanded. */
+    private final Board[] boards;
+    private final int depth;
+    private final VisitedSet visited;
+    private final SearchStats stats;
+
+    private Frontier(SearchNode[] nodes, int depth, VisitedSet visited, SearchStats stats) {
+        this.nodes = nodes;
+        this.boards = new Board[nodes.length];
+        for (var i = 0; i < nodes.length; i++) {
+            boards[i] = nodes[i].getBoard();
+        }
+        this.depth = depth;
+        this.visited = visited;
+        this.stats = stats;
+    }
+
+    /**
+     * Every state reachable from the board, layer by layer.
+     */
+    public static Stream<Board> reachable(Board board) {
+        return layers(board).flatMap(Frontier::boards);
+    }
+
+    /**
+     * The layers reachable from the board, up to the first empty one.
+     */
+    public static Stream<Frontier> layers(Board board) {
+        return layers(root(board, VisitedSet.onHeap(), new SearchStats()));
+    }
+
+    static Stream<Frontier> layers(Frontier first) {
+        return Stream.iterate(first, layer -> !layer.isEmpty(), Frontier::next);
+    }
+
+    /**
+     * The layer holding just the board, recording states in the given set
+     * and counts in the given statistics as layers are built.
+     */
+    static Frontier root(Board board, VisitedSet visited, SearchStats stats) {
+        final var root = SearchNode.root(board);
+        return new Frontier(admit(root, visited, stats) ? new SearchNode[]{root} : new SearchNode[0], 0, visited,
+                stats);
+    }
+
+    /**
+     * Number of moves needed to reach the boards of this layer.
+     */
+    public int depth() {
+        return depth;
+    }
+
+    public int size() {
+        return nodes.length;
+    }
+
+    public boolean isEmpty() {
+        return nodes.length == 0;
+    }
+
+    public Stream<Board> boards() {
+        return StreamSupport.stream(Spliterators.spliterator(boards, CHARACTERISTICS), false);
+    }
+
+    /**
+     * The nodes of the layer, whose boards are only there until the next
+     * layer is built.
+     */
+    Stream<SearchNode> nodes() {
+        return StreamSupport.stream(Spliterators.spliterator(nodes, CHARACTERISTICS), false);
+    }
+
+    /**
+     * The boards one move on from this layer that were not seen before.
+     */
+    public Frontier next() {
+        final var next = new ArrayList<SearchNode>();
+        final var moves = new IntMoveList();
+
+        for (var n = 0; n < nodes.length; n++) {
+            Cancellation.check();
+            stats.expanded(depth);
+            moves.clear();
+            boards[n].getAvailableMoves(moves);
+            for (var i = 0; i < moves.size(); i++) {
+                final var child = nodes[n].child(boards[n], moves.get(i));
+                if (admit(child, visited, stats)) {
+                    next.add(child);
+                }
+            }
+            nodes[n].release();
+        }
+
+        stats.visited(visited);
+        return new Frontier(next.toArray(new SearchNode[0]), depth + 1, visited, stats);
+    }
+
+    private static boolean admit(SearchNode node, VisitedSet visited, SearchStats stats) {
+        stats.generated(node.getDepth());
+
+        if (node.getBoard().isDead()) {
+            stats.pruned();
+            return false;
+        } else if (!visited.add(node.getBoard())) {
+            stats.duplicate();
+            return false;
+        }
+        return true;
+    }
+}
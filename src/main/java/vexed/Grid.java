@@ -0,0 +1,91 @@
+package vexed;
+
+/**
+ * The cells of a board of one size, numbered {@code row * width + column},
+ * with the neighbour of every cell in every {@link Direction} worked out
+ * up front, along with the cell above, which no move leads to but
+ * matching looks at. Stepping to a neighbour is a single array read, and
+ * stepping off the board gives {@link #NONE} rather than needing bounds
+ * checks.
+ * Grids never change, so one is shared by every board of its size.
+ */
+public final class Grid {
+    static final int NONE = -1;
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final int ABOVE = DIRECTIONS.length;
+    private static final int STRIDE = ABOVE + 1;
+
+    private final int width;
+    private final int height;
+    private final Position[] positions;
+    /** The neighbour of cell c in direction d is at {@code c * STRIDE + d.ordinal()}. */
+    private final int[] neighbours;
+
+    Grid(int width, int height, PositionSupplier positionSupplier) {
+        this.width = width;
+        this.height = height;
+        positions = new Position[width * height];
+        neighbours = new int[width * height * STRIDE];
+
+        for (var row = 0; row < height; row++) {
+            for (var column = 0; column < width; column++) {
+                final var cell = row * width + column;
+                positions[cell] = positionSupplier.getPosition(row, column);
+
+                for (final var direction : DIRECTIONS) {
+                    neighbours[cell * STRIDE + direction.ordinal()] =
+                            cell(row + direction.rowDelta(), column + direction.columnDelta());
+                }
+                neighbours[cell * STRIDE + ABOVE] = cell(row - 1, column);
+            }
+        }
+    }
+
+    int width() {
+        return width;
+    }
+
+    int height() {
+        return height;
+    }
+
+    int cells() {
+        return positions.length;
+    }
+
+    int cell(Position position) {
+        return position.row() * width + position.column();
+    }
+
+    private int cell(int row, int column) {
+        return row >= 0 && row < height && column >= 0 && column < width ? row * width + column : NONE;
+    }
+
+    boolean contains(Position position) {
+        return position.column() >= 0 && position.column() < width && position.row() >= 0
+               && position.row() < height;
+    }
+
+    Position position(int cell) {
+        return positions[cell];
+    }
+
+    /**
+     * The cell next to the given one, or {@link #NONE} past the edge.
+     */
+    int neighbour(int cell, Direction direction) {
+        return neighbours[cell * STRIDE + direction.ordinal()];
+    }
+
+    int above(int cell) {
+        return neighbours[cell * STRIDE + ABOVE];
+    }
+
+    /**
+     * The position next to one on the board, or null past the edge.
+     */
+    Position neighbour(Position position, Direction direction) {
+        final var cell = neighbour(cell(position), direction);
+        return cell == NONE ? null : positions[cell];
+    }
+}
@@ -0,0 +1,35 @@
+package vexed;
+
+/**
+ * A lower bound on the number of moves needed to solve a board. Estimates
+ * must never exceed the true distance, or {@link AStarSolver} may return a
+ * solution that is not the shortest.
+ */
+@FunctionalInterface
+public interface Heuristic {
+
+    /**
+     * Returned for boards that can be shown to have no solution.
+     */
+    int UNSOLVABLE = Integer.MAX_VALUE;
+
+    /**
+     * One move for any unsolved board.
+     */
+    Heuristic UNSOLVED = board -> board.isSolved() ? 0 : 1;
+
+    /**
+     * Per colour, how far the block furthest from a partner of its own
+     * colour is from becoming adjacent to one, summed over colours.
+     */
+    Heuristic COLOUR_DISTANCE = Heuristics::colourDistance;
+
+    int estimate(Board board);
+
+    /**
+     * The larger of two estimates, which is admissible when both are.
+     */
+    default Heuristic max(Heuristic other) {
+        return board -> Math.max(estimate(board), other.estimate(board));
+    }
+}
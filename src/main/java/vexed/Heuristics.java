@@ -0,0 +1,84 @@
+package vexed;
+
+/**
+ * Implementations of the standard {@link Heuristic}s.
+ */
+final class Heuristics {
+    private static final int SYMBOLS = 1 << Byte.SIZE;
+
+    private Heuristics() {
+    }
+
+    /**
+     * A block can only be cleared next to another block of its colour. Each
+     * move shifts a single block one column and gravity never changes a
+     * column, so closing a gap of g columns between two blocks of a colour
+     * takes at least g - 1 moves of that colour. The bound for a colour is
+     * the largest such gap from any block to its nearest partner, and the
+     * bounds of different colours add up because every move belongs to
+     * exactly one colour. A colour with a single block left can never be
+     * cleared.
+     */
+    static int colourDistance(Board board) {
+        if (board.isSolved()) {
+            return 0;
+        }
+
+        final var width = board.getWidth();
+        if (width > Long.SIZE) {
+            return 1;
+        }
+
+        final var key = board.getStateKey();
+        final var counts = new int[SYMBOLS];
+        final var columns = new long[SYMBOLS];
+        final var sharedColumns = new long[SYMBOLS];
+
+        for (var cell = 0; cell < key.length; cell++) {
+            final var symbol = key[cell] & 0xFF;
+            if (symbol != 0 && symbol != Block.WALL_SYMBOL) {
+                final var bit = 1L << (cell % width);
+                sharedColumns[symbol] |= columns[symbol] & bit;
+                columns[symbol] |= bit;
+                counts[symbol]++;
+            }
+        }
+
+        var total = 0;
+        for (var symbol = 0; symbol < SYMBOLS; symbol++) {
+            if (counts[symbol] == 1) {
+                return Heuristic.UNSOLVABLE;
+            } else if (counts[symbol] > 1) {
+                total += largestGap(columns[symbol], sharedColumns[symbol]);
+            }
+        }
+
+        return Math.max(1, total);
+    }
+
+    /**
+     * For blocks in the given columns, the most moves any one of them needs
+     * to get next to another. Blocks sharing a column are already together.
+     */
+    private static int largestGap(long columns, long sharedColumns) {
+        var largest = 0;
+
+        for (var remaining = columns & ~sharedColumns; remaining != 0; remaining &= remaining - 1) {
+            final var column = Long.numberOfTrailingZeros(remaining);
+            final var below = columns & ((1L << column) - 1);
+            final var above = columns & -(1L << column) & ~(1L << column);
+            var nearest = Integer.MAX_VALUE;
+
+            if (below != 0) {
+                nearest = column - (Long.SIZE - 1 - Long.numberOfLeadingZeros(below));
+            }
+            if (above != 0) {
+                nearest = Math.min(nearest, Long.numberOfTrailingZeros(above) - column);
+            }
+
+            largest = Math.max(largest, nearest - 1);
+        }
+
+        return largest;
+    }
+}
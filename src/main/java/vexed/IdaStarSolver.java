@@ -0,0 +1,194 @@
+package vexed;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Solves using iterative-deepening A*: repeated depth-first searches, each
+ * cutting off boards whose moves made plus {@link Heuristic} estimate
+ * exceed a bound, with the bound raised to the smallest estimate cut off
+ * until a solution turns up. With an admissible heuristic that solution is
+ * a shortest one. The search walks a single {@link MutableBoard}, making
+ * and taking back moves, so memory grows with the solution length, not
+ * with the number of states; a fixed-size {@link TranspositionTable} saves
+ * re-expanding states already reached at no greater depth in the same
+ * iteration.
+ */
+public class IdaStarSolver implements Solver {
+    private static final int DEFAULT_TABLE_SIZE = 1 << 20;
+    /** Cut-off states to look up again at the end of an iteration. */
+    private static final int MAX_UNRESOLVED = 1 << 12;
+    private static final int FOUND = -1;
+
+    private final Heuristic heuristic;
+    private final int tableSize;
+
+    public IdaStarSolver() {
+        this(Heuristic.COLOUR_DISTANCE);
+    }
+
+    public IdaStarSolver(Heuristic heuristic) {
+        this(heuristic, DEFAULT_TABLE_SIZE);
+    }
+
+    /**
+     * @param tableSize transposition table entries, which at 16 bytes each
+     *                  is most of the memory the solver needs
+     */
+    public IdaStarSolver(Heuristic heuristic, int tableSize) {
+        this.heuristic = heuristic;
+        this.tableSize = tableSize;
+    }
+
+    @Override
+    public Solution solve(Board board) throws UnsolveableBoardException {
+        return solve(board, SearchListener.NONE);
+    }
+
+    @Override
+    public Solution solve(Board board, SearchListener listener) throws UnsolveableBoardException {
+        return new Search(listener).run(new MutableBoard(board));
+    }
+
+    private class Search {
+        private final SearchStats stats;
+        private final TranspositionTable table = new TranspositionTable(tableSize);
+        private final IntMoveList path = new IntMoveList();
+        /** One list per depth of the path, reused from one iteration to the next. */
+        private final List<IntMoveList> movesByDepth = new ArrayList<>();
+        private final long[] unresolved = new long[MAX_UNRESOLVED];
+        private int unresolvedCount;
+        private boolean overflowed;
+
+        Search(SearchListener listener) {
+            stats = new SearchStats(listener);
+        }
+
+        Solution run(MutableBoard root) {
+            stats.generated(0);
+            var bound = root.isDead() ? Heuristic.UNSOLVABLE : heuristic.estimate(root);
+            if (bound == Heuristic.UNSOLVABLE) {
+                stats.pruned();
+                throw new UnsolveableBoardException("cannot solve board");
+            }
+
+            while (true) {
+                table.reachedNoDeeper(root.getZobristHash(), 0);
+                final var next = search(root, 0, bound);
+
+                if (next == FOUND) {
+                    return new Solution(history(root), table.size(), (double) table.bytesUsed() / table.capacity(),
+                            stats);
+                } else if (next == Heuristic.UNSOLVABLE || exhausted()) {
+                    throw new UnsolveableBoardException("cannot solve board");
+                }
+
+                bound = next;
+                table.nextIteration();
+                stats.newIteration();
+                unresolvedCount = 0;
+                overflowed = false;
+            }
+        }
+
+        /**
+         * Searches below a board reached by the moves on the path.
+         *
+         * @return {@link #FOUND} with the solution left on the path, or the
+         * smallest estimate of the total moves that went over the bound
+         */
+        private int search(MutableBoard board, int depth, int bound) {
+            if (board.isSolved()) {
+                return FOUND;
+            }
+
+            Cancellation.check();
+            stats.expanded(depth);
+            stats.visited(table.size());
+            var smallest = Heuristic.UNSOLVABLE;
+
+            final var moves = moves(depth);
+            board.getAvailableMoves(moves);
+
+            for (var i = 0; i < moves.size(); i++) {
+                final var move = moves.get(i);
+                board.make(move);
+                stats.generated(depth + 1);
+                final var estimate = board.isDead() ? Heuristic.UNSOLVABLE : heuristic.estimate(board);
+
+                if (estimate == Heuristic.UNSOLVABLE) {
+                    stats.pruned();
+                } else if (depth + 1 + estimate > bound) {
+                    smallest = Math.min(smallest, depth + 1 + estimate);
+                    cutOff(board.getZobristHash());
+                } else if (table.reachedNoDeeper(board.getZobristHash(), depth + 1)) {
+                    stats.duplicate();
+                } else {
+                    path.add(move);
+                    final var result = search(board, depth + 1, bound);
+                    if (result == FOUND) {
+                        return FOUND;
+                    }
+                    path.removeLast();
+                    smallest = Math.min(smallest, result);
+                }
+                board.unmake();
+            }
+
+            return smallest;
+        }
+
+        /**
+         * Remembers a state cut off by the bound unless it has already been
+         * reached some shorter way.
+         */
+        private void cutOff(long hash) {
+            if (!table.contains(hash)) {
+                if (unresolvedCount < MAX_UNRESOLVED) {
+                    unresolved[unresolvedCount++] = hash;
+                } else {
+                    overflowed = true;
+                }
+            }
+        }
+
+        /**
+         * Whether the iteration just finished reached every state there is.
+         * Moving blocks back and forth always leaves boards over any bound,
+         * so the bound alone never runs out; but if the table kept every
+         * state reached and each state cut off was reached anyway, raising
+         * the bound can find nothing new.
+         */
+        private boolean exhausted() {
+            if (!table.isComplete() || overflowed) {
+                return false;
+            }
+            for (var i = 0; i < unresolvedCount; i++) {
+                if (!table.contains(unresolved[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * The emptied list for the moves of the board at a depth.
+         */
+        private IntMoveList moves(int depth) {
+            if (depth == movesByDepth.size()) {
+                movesByDepth.add(new IntMoveList());
+            }
+            final var moves = movesByDepth.get(depth);
+            moves.clear();
+            return moves;
+        }
+
+        private MoveHistory history(MutableBoard board) {
+            final var history = new MoveHistory();
+            for (var i = 0; i < path.size(); i++) {
+                history.add(board.toMove(path.get(i)));
+            }
+            return history;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package vexed;
+
+import java.util.Arrays;
+
+/**
+ * A reusable list of moves packed as by {@link PackedMove}, for generating
+ * moves without allocating a {@link Move} per candidate. Clear it and
+ * hand it to {@link Board#getAvailableMoves(IntMoveList)} again for the
+ * next board; it only allocates when a board has more moves than any
+ * before it.
+ */
+public final class IntMoveList {
+    private int[] moves;
+    private int size;
+
+    public IntMoveList() {
+        this(16);
+    }
+
+    IntMoveList(int capacity) {
+        moves = new int[capacity];
+    }
+
+    void add(int packedMove) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, Math.max(1, size * 2));
+        }
+        moves[size++] = packedMove;
+    }
+
+    int get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return moves[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    /**
+     * Drops the last move, as a search backs out of it.
+     */
+    int removeLast() {
+        if (size == 0) {
+            throw new IllegalStateException("no moves");
+        }
+        return moves[--size];
+    }
+}
@@ -0,0 +1,8 @@
+package vexed;
+
+/**
+ * A board in the text format read by {@link MapBoard#fromString}, named
+ * after where it was read from.
+ */
+public record Level(String name, String layout) {
+}
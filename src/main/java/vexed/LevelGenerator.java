@@ -0,0 +1,260 @@
+package vexed;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Makes random solvable levels to a {@link Spec}. Blocks are dropped onto
+ * random walls, floor or other blocks, never next to one of their own
+ * colour, and each candidate is solved with A*, whose admissible heuristic
+ * makes the solution it finds a shortest one. Candidates that cannot be
+ * solved, need too few moves or take too long to solve are thrown away.
+ * The same spec and seed always give the same levels for a given
+ * {@link #VERSION}.
+ */
+public final class LevelGenerator {
+    /** Raised whenever the same spec and seed would start giving different levels. */
+    public static final int VERSION = 1;
+    private static final int MAX_ATTEMPTS = 10_000;
+    private static final long DEFAULT_MAX_EXPANSIONS = 1 << 16;
+    private static final char EMPTY = ' ';
+
+    /**
+     * The specs the corpus is generated from: growing boards, colours and
+     * solution lengths, so solver cost can be followed along each.
+     */
+    static final List<Spec> CORPUS_SPECS = List.of(
+            new Spec(5, 4, 0.15, 2, 2),
+            new Spec(6, 5, 0.15, 3, 4),
+            new Spec(6, 5, 0.15, 4, 6),
+            new Spec(8, 6, 0.15, 3, 6),
+            new Spec(8, 6, 0.15, 5, 8),
+            new Spec(10, 8, 0.10, 4, 8),
+            new Spec(12, 8, 0.10, 4, 12));
+
+    private final Spec spec;
+    private final Random random;
+    private final long maxExpansions;
+    private final PositionSupplier positionSupplier = new CachingPositionSupplier();
+    private final BlockCache blockCache = new BlockCache();
+    private final MoveCache moveCache = new MoveCache(10);
+
+    /**
+     * The interior of a board to generate, inside the side walls and floor
+     * every level has.
+     *
+     * @param wallDensity chance of each interior cell being a wall
+     * @param colours     number of colours, each with two or three blocks
+     * @param minDepth    fewest moves a level may be solved in
+     */
+    public record Spec(int width, int height, double wallDensity, int colours, int minDepth) {
+        public Spec {
+            if (width < 2 || height < 1) {
+                throw new IllegalArgumentException("board too small: " + width + "x" + height);
+            } else if (wallDensity < 0 || wallDensity >= 1) {
+                throw new IllegalArgumentException("wall density must be in [0, 1): " + wallDensity);
+            } else if (colours < 1 || colours > 26) {
+                throw new IllegalArgumentException("colours must be from 1 to 26: " + colours);
+            } else if (minDepth < 1) {
+                throw new IllegalArgumentException("minimum depth must be positive: " + minDepth);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return width + "x" + height + " walls " + wallDensity + " colours " + colours + " depth >= " + minDepth;
+        }
+    }
+
+    /**
+     * A level in the {@link MapBoard#fromString} format and the fewest
+     * moves it can be solved in.
+     */
+    public record Generated(String layout, int depth) {
+    }
+
+    public LevelGenerator(Spec spec, long seed) {
+        this(spec, seed, DEFAULT_MAX_EXPANSIONS);
+    }
+
+    /**
+     * @param maxExpansions boards the solver may expand on one candidate
+     *                      before it is given up on, checked every
+     *                      {@link SearchStats#PROGRESS_INTERVAL}
+     */
+    LevelGenerator(Spec spec, long seed, long maxExpansions) {
+        this.spec = spec;
+        this.random = new Random(seed);
+        this.maxExpansions = maxExpansions;
+    }
+
+    /**
+     * Writes levels for every spec to a directory named for the
+     * {@link #VERSION} under the given one, as pack files holding the
+     * levels of each solution length, {@code depth-07.txt} and so on.
+     * Each spec gets its own seed drawn from the one given.
+     */
+    public static void writeCorpus(Path directory, List<Spec> specs, int levelsPerSpec, long seed)
+            throws IOException {
+        final var seeds = new Random(seed);
+        final Map<Integer, Set<String>> byDepth = new TreeMap<>();
+
+        for (final var spec : specs) {
+            final var generator = new LevelGenerator(spec, seeds.nextLong());
+            for (var i = 0; i < levelsPerSpec; i++) {
+                final var level = generator.next();
+                byDepth.computeIfAbsent(level.depth(), depth -> new LinkedHashSet<>()).add(level.layout());
+            }
+        }
+
+        final var versioned = directory.resolve("v" + VERSION);
+        Files.createDirectories(versioned);
+        for (final var entry : byDepth.entrySet()) {
+            final var text = new StringBuilder();
+            text.append("; vexed corpus v").append(VERSION).append(", seed ").append(seed).append(": levels solved in ")
+                    .append(entry.getKey()).append(" moves\n");
+            for (final var layout : entry.getValue()) {
+                text.append('\n').append(layout).append('\n');
+            }
+            Files.writeString(versioned.resolve(String.format("depth-%02d.txt", entry.getKey())), text,
+                    StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Writes the corpus: {@code DIRECTORY [LEVELS_PER_SPEC] [SEED]}.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("usage: LevelGenerator DIRECTORY [LEVELS_PER_SPEC] [SEED]");
+            System.exit(2);
+        }
+        final var levelsPerSpec = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        final var seed = args.length > 2 ? Long.parseLong(args[2]) : 1L;
+        writeCorpus(Path.of(args[0]), CORPUS_SPECS, levelsPerSpec, seed);
+    }
+
+    /**
+     * The next level meeting the spec.
+     *
+     * @throws IllegalStateException if none turns up in a reasonable number
+     *                               of attempts, as when the minimum depth
+     *                               is out of reach for the board size
+     */
+    public Generated next() {
+        for (var attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            Cancellation.check();
+            final var layout = candidate();
+            if (layout == null) {
+                continue;
+            }
+
+            final var depth = depth(layout);
+            if (depth >= spec.minDepth()) {
+                return new Generated(layout, depth);
+            }
+        }
+        throw new IllegalStateException("no level found for " + spec);
+    }
+
+    /**
+     * A random board in the text format, or null if the blocks did not fit.
+     */
+    private String candidate() {
+        final var cells = new char[spec.height()][spec.width()];
+        for (final var row : cells) {
+            for (var column = 0; column < row.length; column++) {
+                row[column] = random.nextDouble() < spec.wallDensity() ? Block.WALL_SYMBOL : EMPTY;
+            }
+        }
+
+        for (var colour = 0; colour < spec.colours(); colour++) {
+            final var symbol = (char) ('A' + colour);
+            final var count = random.nextInt(3) == 0 ? 3 : 2;
+            for (var i = 0; i < count; i++) {
+                if (!drop(cells, symbol)) {
+                    return null;
+                }
+            }
+        }
+
+        final var layout = new StringBuilder();
+        for (final var row : cells) {
+            layout.append(Block.WALL_SYMBOL).append(row).append(Block.WALL_SYMBOL).append('\n');
+        }
+        layout.append(String.valueOf(Block.WALL_SYMBOL).repeat(spec.width() + 2));
+        return layout.toString();
+    }
+
+    /**
+     * Puts a block on a random cell that has something under it and no
+     * block of the same colour beside it.
+     */
+    private boolean drop(char[][] cells, char symbol) {
+        final var free = new ArrayList<int[]>();
+        for (var row = 0; row < cells.length; row++) {
+            for (var column = 0; column < cells[row].length; column++) {
+                if (cells[row][column] == EMPTY && (row + 1 == cells.length || cells[row + 1][column] != EMPTY)
+                    && !beside(cells, row, column, symbol)) {
+                    free.add(new int[]{row, column});
+                }
+            }
+        }
+
+        if (free.isEmpty()) {
+            return false;
+        }
+        final var cell = free.get(random.nextInt(free.size()));
+        cells[cell[0]][cell[1]] = symbol;
+        return true;
+    }
+
+    private static boolean beside(char[][] cells, int row, int column, char symbol) {
+        return row > 0 && cells[row - 1][column] == symbol
+               || row + 1 < cells.length && cells[row + 1][column] == symbol
+               || column > 0 && cells[row][column - 1] == symbol
+               || column + 1 < cells[row].length && cells[row][column + 1] == symbol;
+    }
+
+    /**
+     * The fewest moves the layout can be solved in, or -1 if it cannot be
+     * solved or took too long to find out.
+     */
+    private int depth(String layout) {
+        final var factory = spec.width() + 2 <= Long.SIZE ? BoardFactory.BIT : BoardFactory.MAP;
+        final var board = MapBoard.fromString(layout, positionSupplier, blockCache, moveCache, factory);
+        if (board.isDead()) {
+            return -1;
+        }
+
+        try {
+            return new AStarSolver().solve(board, new SearchListener() {
+                @Override
+                public void progress(SearchStats stats) {
+                    if (stats.getNodesExpanded() >= maxExpansions) {
+                        throw new TooHard();
+                    }
+                }
+            }).getMoveHistory().size();
+        } catch (final UnsolveableBoardException | TooHard e) {
+            return -1;
+        }
+    }
+
+    private static final class TooHard extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        TooHard() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package vexed;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Reads levels from pack files: boards in the {@link MapBoard#fromString}
+ * format, separated by empty lines. A line of spaces is a row of empty
+ * cells, not a separator. Lines starting with {@code ;} are comments. Levels are named after their file and their place in it,
+ * counting from one.
+ */
+public final class LevelPack {
+    private static final String COMMENT = ";";
+
+    private LevelPack() {
+    }
+
+    /**
+     * Reads a pack file, or every file in a directory in name order.
+     */
+    public static List<Level> read(Path path) throws IOException {
+        if (!Files.isDirectory(path)) {
+            return parse(path.getFileName().toString(), Files.readString(path, StandardCharsets.UTF_8));
+        }
+
+        final List<Path> files;
+        try (var listing = Files.list(path)) {
+            files = listing.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+
+        final var levels = new ArrayList<Level>();
+        for (final var file : files) {
+            levels.addAll(read(file));
+        }
+        return levels;
+    }
+
+    static List<Level> parse(String packName, String text) {
+        final var levels = new ArrayList<Level>();
+        final var layout = new StringBuilder();
+
+        for (final var line : text.split("\r?\n", -1)) {
+            if (line.startsWith(COMMENT)) {
+                continue;
+            }
+
+            if (line.isEmpty()) {
+                addLevel(levels, packName, layout);
+            } else {
+                layout.append(line).append('\n');
+            }
+        }
+        addLevel(levels, packName, layout);
+
+        return levels;
+    }
+
+    private static void addLevel(List<Level> levels, String packName, StringBuilder layout) {
+        if (layout.length() > 0) {
+            layout.setLength(layout.length() - 1);
+            levels.add(new Level(packName + "#" + (levels.size() + 1), layout.toString()));
+            layout.setLength(0);
+        }
+    }
+}
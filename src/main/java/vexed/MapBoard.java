@@ -2,38 +2,70 @@ package vexed;
 
 import java.util.*;
 import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 
 import static vexed.Direction.*;
 
-public class MapBoard implements Board {
-    private static final List<Direction> DIRECTION_LIST = List.of(Left, Right);
+public class MapBoard extends AbstractBoard {
     private static final Direction[] DIRECTIONS = {Left, Right};
+    /**
+     * Working space for group detection, one per thread and grown to fit
+     * the largest board seen, so finding groups allocates nothing.
+     */
+    private static final ThreadLocal<int[]> SCRATCH = ThreadLocal.withInitial(() -> new int[0]);
 
     private final Map<Position, Block> contents = new HashMap<>();
-    private final MoveHistory moveHistory = new MoveHistory();
     private final PositionSupplier positionSupplier;
+    private final Grid grid;
     private final MoveCache moveCache;
     private final int width;
     private final int height;
+    private final DeadStates deadStates;
+    private long zobristHash;
+    private boolean dead;
+    /** Nothing can fall and no two neighbouring blocks match; true of every board produced by a move. */
+    private boolean stable;
 
     MapBoard(int width, int height, Map<Position, Block> configuration, PositionSupplier positionSupplier, MoveCache moveCache) {
         this.width = width;
         this.height = height;
         this.positionSupplier = positionSupplier;
+        grid = positionSupplier.grid(width, height);
         this.moveCache = moveCache;
         contents.putAll(configuration);
+        zobristHash = Zobrist.hash(width, height, contents);
+        deadStates = DeadStates.forBoard(this);
+        dead = computeDead();
     }
 
     private MapBoard(MapBoard board) {
-        this(board.width, board.height, board.contents, board.positionSupplier, board.moveCache);
-        moveHistory.addAll(board.moveHistory);
+        width = board.width;
+        height = board.height;
+        positionSupplier = board.positionSupplier;
+        grid = board.grid;
+        moveCache = board.moveCache;
+        contents.putAll(board.contents);
+        zobristHash = board.zobristHash;
+        deadStates = board.deadStates;
     }
 
     static MapBoard fromString(String layoutText, PositionSupplier positionSupplier, BlockCache blockCache, MoveCache moveCache) {
         final var lines = layoutText.split("\n");
-        final var height = lines.length;
-        final var width = lines[0].length();
+        return new MapBoard(lines[0].length(), lines.length, parseLayout(lines, positionSupplier, blockCache),
+                positionSupplier, moveCache);
+    }
+
+    /**
+     * Reads a board in the same text format, letting the factory choose
+     * the implementation.
+     */
+    static Board fromString(String layoutText, PositionSupplier positionSupplier, BlockCache blockCache,
+                            MoveCache moveCache, BoardFactory boardFactory) {
+        final var lines = layoutText.split("\n");
+        return boardFactory.create(lines[0].length(), lines.length, parseLayout(lines, positionSupplier, blockCache),
+                positionSupplier, blockCache, moveCache);
+    }
+
+    private static Map<Position, Block> parseLayout(String[] lines, PositionSupplier positionSupplier, BlockCache blockCache) {
         final Map<Position, Block> layout = new HashMap<>();
 
         for (var row = 0; row < lines.length; row++) {
@@ -45,7 +77,7 @@ public class MapBoard implements Board {
             }
         }
 
-        return new MapBoard(width, height, layout, positionSupplier, moveCache);
+        return layout;
     }
 
     @Override
@@ -60,12 +92,22 @@ public class MapBoard implements Board {
 
     @Override
     public boolean isSolved() {
-        return getOccupiedPositions().isEmpty();
+        for (final var block : contents.values()) {
+            if (!block.isWall()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isDead() {
+        return dead;
     }
 
     @Override
-    public MoveHistory getMoveHistory() {
-        return new MoveHistory(moveHistory);
+    public long getZobristHash() {
+        return zobristHash;
     }
 
     @Override
@@ -79,55 +121,107 @@ public class MapBoard implements Board {
             throw new IllegalMoveException();
         }
         final var resultingBoard = copy();
-        resultingBoard.doRecordedMove(move);
+        resultingBoard.doMove(move);
+        if (stable) {
+            resultingBoard.settleAndClear(move);
+        } else {
+            resultingBoard.settleAndClear();
+        }
+        return resultingBoard.settled();
+    }
+
+    /**
+     * Applies the move settling and clearing the whole board, as boards
+     * did before they kept track of what a move disturbs. Kept as the
+     * reference for the incremental engine.
+     */
+    MapBoard applyExhaustively(Move move) {
+        if (!movePossible(move)) {
+            throw new IllegalMoveException();
+        }
+        final var resultingBoard = copy();
+        resultingBoard.doMove(move);
         resultingBoard.settleAndClear();
-        return resultingBoard;
+        return resultingBoard.settled();
     }
 
-    @Override
-    public Collection<Move> getAvailableMoves() {
-        final Collection<Move> moves = new HashSet<>();
+    private MapBoard settled() {
+        stable = true;
+        dead = computeDead();
+        return this;
+    }
 
-        for (final var position : getOccupiedPositions()) {
-            for (final var direction : DIRECTIONS) {
-                if (canPutBlockAt(position.getNeighborTo(direction, positionSupplier))) {
-                    moves.add(new Move(position, direction));
-                }
+    /**
+     * Feeds the blocks to the dead state check straight from the contents.
+     */
+    private boolean computeDead() {
+        final var scan = deadStates.scan();
+        for (final var entry : contents.entrySet()) {
+            if (!entry.getValue().isWall()) {
+                final var position = entry.getKey();
+                scan.block(position.row() * width + position.column(), entry.getValue().symbol());
             }
         }
+        return scan.isDead();
+    }
 
+    @Override
+    public Collection<Move> getAvailableMoves() {
+        final var packed = new IntMoveList();
+        getAvailableMoves(packed);
+
+        final var moves = new ArrayList<Move>(packed.size());
+        for (var i = 0; i < packed.size(); i++) {
+            moves.add(toMove(packed.get(i)));
+        }
         return moves;
     }
 
+    /**
+     * Rows from the bottom up, each block's moves left then right.
+     */
     @Override
-    public Stream<Board> applyMoves() {
-        return availableMovesStream().map(this::apply);
+    public void getAvailableMoves(IntMoveList moves) {
+        for (var row = height - 1; row >= 0; row--) {
+            for (var cell = row * width; cell < (row + 1) * width; cell++) {
+                if (!moveableBlockAt(grid.position(cell))) {
+                    continue;
+                }
+                for (final var direction : DIRECTIONS) {
+                    final var target = grid.neighbour(cell, direction);
+                    if (target != Grid.NONE && !isOccupied(grid.position(target))) {
+                        moves.add(PackedMove.pack(cell, direction));
+                    }
+                }
+            }
+        }
     }
 
-    private Stream<Move> availableMovesStream() {
-        return getOccupiedPositionsStream().flatMap(pos ->
-                DIRECTION_LIST.stream()
-                        .filter(dir -> canPutBlockAt(pos.getNeighborTo(dir, positionSupplier)))
-                        .map(dir -> new Move(pos, dir)));
+    @Override
+    public Stream<Board> applyMoves() {
+        return getAvailableMoves().stream().map(this::apply);
     }
 
-    private boolean movePossible(Move move) {
-        return withinBoardBounds(move.position()) && moveableBlockAt(move.position())
-               && canPutBlockAt(move.getTargetPosition(positionSupplier));
+    @Override
+    public MapBoard apply(int packedMove) {
+        return apply(toMove(packedMove));
     }
 
-    private void doRecordedMove(Move move) {
-        recordMove(move);
-        doMove(move);
+    @Override
+    public Move toMove(int packedMove) {
+        return moveCache.moveFor(packedMove, width);
     }
 
-    private void recordMove(Move move) {
-        moveHistory.add(move);
+    private boolean movePossible(Move move) {
+        return withinBoardBounds(move.position()) && moveableBlockAt(move.position())
+               && canPutBlockAt(target(move));
     }
 
     private void doMove(Move move) {
-        contents.put(move.getTargetPosition(positionSupplier), contents.get(move.position()));
-        contents.remove(move.position());
+        final var target = target(move);
+        final var block = contents.remove(move.position());
+        contents.put(target, block);
+        zobristHash ^= Zobrist.key(move.position(), block) ^ Zobrist.key(target, block);
     }
 
     private void settleAndClear() {
@@ -136,6 +230,108 @@ public class MapBoard implements Board {
         } while (clearBlockGroups());
     }
 
+    /**
+     * Settles and clears after a move from a stable board, looking only at
+     * what the move disturbed. Blocks can only be left hanging in a column
+     * that lost a block, and only a block that landed somewhere new can have
+     * gained a neighbour of its colour, so gravity is applied to those
+     * columns and matching to those blocks. Ends in the same board as
+     * {@link #settleAndClear()}.
+     */
+    private void settleAndClear(Move move) {
+        final var target = target(move);
+        final var columns = new BitSet(width);
+        final var landed = new ArrayList<Position>();
+        columns.set(move.position().column());
+        columns.set(target.column());
+        landed.add(target);
+
+        final var cells = width * height;
+        final var scratch = scratch(2 * cells);
+        Arrays.fill(scratch, 0, cells, 0);
+
+        int matches;
+        do {
+            settleColumns(columns, landed);
+            matches = findMatches(landed, scratch);
+
+            columns.clear();
+            landed.clear();
+            for (var i = cells; i < cells + matches; i++) {
+                scratch[scratch[i]] = 0;
+                columns.set(scratch[i] % width);
+            }
+        } while (clearCells(scratch, cells, matches));
+    }
+
+    private void settleColumns(BitSet columns, Collection<Position> landed) {
+        for (var column = columns.nextSetBit(0); column >= 0; column = columns.nextSetBit(column + 1)) {
+            for (var row = height - 2; row >= 0; row--) {
+                var position = grid.position(row * width + column);
+                if (!blockFallingFrom(position)) {
+                    continue;
+                }
+
+                do {
+                    final var move = new Move(position, Down);
+                    doMove(move);
+                    position = target(move);
+                } while (blockFallingFrom(position));
+                landed.add(position);
+            }
+        }
+    }
+
+    /**
+     * Finds every block next to a landed block of its colour, along with
+     * the landed blocks themselves. The first {@code width * height}
+     * entries of the scratch buffer mark the cells found, and the cells
+     * themselves are listed after them.
+     *
+     * @return the number of cells found
+     */
+    private int findMatches(Collection<Position> landed, int[] scratch) {
+        var matches = 0;
+
+        for (final var position : landed) {
+            if (!moveableBlockAt(position)) {
+                continue;
+            }
+
+            final var cell = grid.cell(position);
+            matches = matchNeighbour(cell, grid.above(cell), scratch, matches);
+            matches = matchNeighbour(cell, grid.neighbour(cell, Down), scratch, matches);
+            matches = matchNeighbour(cell, grid.neighbour(cell, Left), scratch, matches);
+            matches = matchNeighbour(cell, grid.neighbour(cell, Right), scratch, matches);
+        }
+
+        return matches;
+    }
+
+    private int matchNeighbour(int cell, int neighbour, int[] scratch, int matches) {
+        if (neighbour == Grid.NONE || !equalBlocksAt(grid.position(cell), grid.position(neighbour))) {
+            return matches;
+        }
+
+        matches = mark(scratch, matches, cell);
+        return mark(scratch, matches, neighbour);
+    }
+
+    private int mark(int[] scratch, int matches, int cell) {
+        if (scratch[cell] == 0) {
+            scratch[cell] = 1;
+            scratch[width * height + matches++] = cell;
+        }
+        return matches;
+    }
+
+    private boolean clearCells(int[] scratch, int from, int count) {
+        for (var i = from; i < from + count; i++) {
+            clearCell(scratch[i]);
+        }
+        return count > 0;
+    }
+
     private void settleBlocks() {
         for (final var position : getOccupiedPositions()) {
             var currentPosition = position;
@@ -143,49 +339,98 @@ public class MapBoard implements Board {
             while (blockFallingFrom(currentPosition)) {
                 final var move = new Move(currentPosition, Down);
                 doMove(move);
-                currentPosition = move.getTargetPosition(positionSupplier);
+                currentPosition = target(move);
             }
         }
     }
 
     private boolean blockFallingFrom(Position position) {
-        return moveableBlockAt(position) && canPutBlockAt(position.getNeighborTo(Down, positionSupplier));
+        return moveableBlockAt(position) && canPutBlockAt(grid.neighbour(position, Down));
     }
 
     private boolean clearBlockGroups() {
-        return clearPositions(findBlockGroups());
-    }
+        final var groups = findBlockGroups();
+        var cleared = false;
 
-    private boolean clearPositions(Collection<Position> positions) {
-        for (final var position : positions) {
-            contents.remove(position);
+        for (var cell = 0; cell < width * height; cell++) {
+            if (groups[root(groups, cell)] < -1) {
+                clearCell(cell);
+                cleared = true;
+            }
         }
 
-        return !positions.isEmpty();
+        return cleared;
     }
 
-    private Collection<Position> findBlockGroups() {
-        final var groups = new GroupContainer();
-        final var directionsToLook = new Direction[]{Down, Right};
+    private void clearCell(int cell) {
+        final var position = grid.position(cell);
+        zobristHash ^= Zobrist.key(position, contents.remove(position));
+    }
+
+    /**
+     * Joins neighbouring blocks of the same colour with a union-find over
+     * cell indices, {@code row * width + column}. A root holds minus the
+     * size of its group and every other cell holds its parent, so cells
+     * without a block are roots of groups of one. The array is this
+     * thread's scratch buffer and is only valid until the next call.
+     */
+    int[] findBlockGroups() {
+        final var groups = scratch(width * height);
+        Arrays.fill(groups, 0, width * height, -1);
 
-        for (final var position : getPositionsFromBottomUp()) {
+        for (var cell = width * height - 1; cell >= 0; cell--) {
+            final var position = grid.position(cell);
             if (!moveableBlockAt(position)) {
                 continue;
             }
 
-            for (final var direction : directionsToLook) {
-                final var neighboringPosition = position.getNeighborTo(direction, positionSupplier);
-                if (equalBlocksAt(position, neighboringPosition)) {
-                    groups.addToGroup(position, groups.getGroup(neighboringPosition));
-                }
+            final var below = grid.neighbour(cell, Down);
+            if (below != Grid.NONE && equalBlocksAt(position, grid.position(below))) {
+                union(groups, cell, below);
             }
+            final var right = grid.neighbour(cell, Right);
+            if (right != Grid.NONE && equalBlocksAt(position, grid.position(right))) {
+                union(groups, cell, right);
+            }
+        }
 
-            if (!groups.hasGroup(position)) {
-                groups.addToGroup(position, groups.getNextAvailableGroup());
+        return groups;
+    }
+
+    private static int root(int[] groups, int cell) {
+        while (groups[cell] >= 0) {
+            final var parent = groups[cell];
+            if (groups[parent] >= 0) {
+                groups[cell] = groups[parent];
             }
+            cell = parent;
+        }
+        return cell;
+    }
+
+    private static void union(int[] groups, int first, int second) {
+        var a = root(groups, first);
+        var b = root(groups, second);
+        if (a == b) {
+            return;
         }
 
-        return groups.getMembersOfNonSingletonGroups();
+        if (groups[a] > groups[b]) {
+            final var swap = a;
+            a = b;
+            b = swap;
+        }
+        groups[a] += groups[b];
+        groups[b] = a;
+    }
+
+    private static int[] scratch(int size) {
+        var scratch = SCRATCH.get();
+        if (scratch.length < size) {
+            scratch = new int[size];
+            SCRATCH.set(scratch);
+        }
+        return scratch;
     }
 
     private Collection<Position> getOccupiedPositions() {
@@ -203,58 +448,37 @@ public class MapBoard implements Board {
         return list;
     }
 
-    private Stream<Position> getOccupiedPositionsStream() {
-        return getPositionsFromBottomUpStream().filter(this::moveableBlockAt);
-    }
-
     private List<Position> getPositionsFromBottomUp() {
         final var positions = new ArrayList<Position>(width * height);
 
-        for (var row = height - 1; row >= 0; row--) {
-            for (var column = width - 1; column >= 0; column--) {
-                positions.add(positionSupplier.getPosition(row, column));
-            }
+        for (var cell = width * height - 1; cell >= 0; cell--) {
+            positions.add(grid.position(cell));
         }
 
         return positions;
     }
 
-    private Stream<Position> getPositionsFromBottomUpStream() {
-        final var iter = new Iterator<Position>() {
-            int row = height - 1;
-            int col = width - 1;
-
-            @Override
-            public boolean hasNext() {
-                return row >= 0 && col >= 0;
-            }
-
-            @Override
-            public Position next() {
-                final var pos = positionSupplier.getPosition(row, col);
-                if (--col < 0) {
-                    row--;
-                    col = width - 1;
-                }
-                return pos;
-            }
-        };
-
-        final var spliter = Spliterators.spliteratorUnknownSize(iter, Spliterator.ORDERED);
-        return StreamSupport.stream(spliter, false);
-    }
-
     private boolean moveableBlockAt(Position position) {
         return contents.containsKey(position) && !contents.get(position).isWall();
     }
 
+    /**
+     * The cell a move leads to, or null past the edge. Only for moves
+     * from a cell on the board.
+     */
+    private Position target(Move move) {
+        return grid.neighbour(move.position(), move.direction());
+    }
+
+    /**
+     * Whether a block can go to a cell, which is null past the edge.
+     */
     private boolean canPutBlockAt(Position position) {
-        return withinBoardBounds(position) && !isOccupied(position);
+        return position != null && !isOccupied(position);
     }
 
     private boolean withinBoardBounds(Position position) {
-        return position.column() >= 0 && position.column() < width && position.row() >= 0
-               && position.row() < height;
+        return grid.contains(position);
     }
 
     private boolean equalBlocksAt(Position first, Position second) {
@@ -270,135 +494,16 @@ public class MapBoard implements Board {
         return new MapBoard(this);
     }
 
-    private Iterable<Position> positions() {
-        return new PositionSequence(width, height, positionSupplier);
-    }
-
     @Override
-    public boolean equals(Object o) {
-        if (o == this) {
-            return true;
-        } else if (!(o instanceof Board other)) {
-            return false;
-        } else {
-            if (getWidth() != other.getWidth() || getHeight() != other.getHeight()) {
-                return false;
-            }
-
-            for (final var position : positions()) {
-                final var thisBlock = getBlockAt(position);
-                final var thatBlock = other.getBlockAt(position);
-
-                if (!Objects.equals(thisBlock, thatBlock)) {
-                    return false;
-                }
-            }
-
-            return true;
-        }
+    PositionSupplier getPositionSupplier() {
+        return positionSupplier;
     }
 
     @Override
-    public int hashCode() {
-        final var factor = 31;
-        var hashCode = 17;
-        hashCode = factor * hashCode + width;
-        hashCode = factor * hashCode + height;
-
-        for (final var position : getOccupiedPositions()) {
-            final var block = getBlockAt(position);
-            hashCode = factor * hashCode + Objects.hash(block);
-        }
-
-        return hashCode;
+    MoveCache getMoveCache() {
+        return moveCache;
     }
 
-    @Override
-    public String toString() {
-        final var builder = new StringBuilder();
-
-        for (final var position : positions()) {
-            final var block = getBlockAt(position);
-            builder.append(block == null ? "." : block.symbol());
-
-            if (position.column() == width - 1)
-                builder.append("\n");
-        }
-
-        return builder.toString();
-    }
-
-    private static class GroupContainer {
-        Integer currentGroup = 0;
-
-        Map<Position, Integer> _positionsMappedToGroups = new HashMap<>();
-
-        Map<Integer, Collection<Position>> _groupsMappedToPositions = new HashMap<>();
-
-        Integer getNextAvailableGroup() {
-            return ++currentGroup;
-        }
-
-        boolean hasGroup(Position position) {
-            return _positionsMappedToGroups.containsKey(position);
-        }
-
-        Integer getGroup(Position position) {
-            return _positionsMappedToGroups.get(position);
-        }
-
-        void addToGroup(Position position, Integer group) {
-            _positionsMappedToGroups.put(position, group);
-
-            if (!_groupsMappedToPositions.containsKey(group)) {
-                _groupsMappedToPositions.put(group, new HashSet<>());
-            }
-
-            _groupsMappedToPositions.get(group).add(position);
-        }
-
-        Collection<Position> getMembersOfNonSingletonGroups() {
-            final Collection<Position> positions = new HashSet<>();
-
-            for (final var group : _groupsMappedToPositions.values())
-                if (group.size() > 1)
-                    positions.addAll(group);
-
-            return positions;
-        }
-    }
-
-    private record PositionSequence(int width, int height, PositionSupplier positionSupplier)
-            implements Iterable<Position> {
-
-        public Iterator<Position> iterator() {
-                return new Iterator<>() {
-                    int row;
-                    int column;
-
-                    public Position next() {
-                        final var position = positionSupplier.getPosition(row, column);
-
-                        if (column == width - 1) {
-                            column = 0;
-                            row++;
-                        } else {
-                            column++;
-                        }
-
-                        return position;
-                    }
-
-                    public boolean hasNext() {
-                        return row < height && column < width;
-                    }
-
-                    public void remove() {
-                    }
-                };
-            }
-        }
-
     static class Builder {
         private final StringBuilder layoutBuilder = new StringBuilder();
         private final int interiorWidth;
@@ -433,5 +538,12 @@ public class MapBoard implements Board {
             addBottomWall();
             return MapBoard.fromString(layoutBuilder.toString(), positionSupplier, blockCache, moveCache);
         }
+
+        Board build(PositionSupplier positionSupplier, BlockCache blockCache, MoveCache moveCache,
+                    BoardFactory boardFactory) {
+            addBottomWall();
+            return MapBoard.fromString(layoutBuilder.toString(), positionSupplier, blockCache, moveCache,
+                    boardFactory);
+        }
     }
 }
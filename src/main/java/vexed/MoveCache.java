@@ -3,10 +3,16 @@ package vexed;
 import java.util.EnumMap;
 import java.util.Map;
 
+/**
+ * Shared {@link Move}s for the cells of boards up to a given size, for
+ * when a packed move has to become a real one.
+ */
 public class MoveCache {
+    private final int dimension;
     private final Map<Direction, Move[][]> byDirection = new EnumMap<>(Direction.class);
 
     public MoveCache(int dimension) {
+        this.dimension = dimension;
         for (final var dir : Direction.values()) {
             final var moves = new Move[dimension][dimension];
             for (var i = 0; i < dimension; i++) {
@@ -18,7 +24,18 @@ public class MoveCache {
         }
     }
 
+    /**
+     * The shared move, or a new one for a cell beyond the cache.
+     */
     public Move moveFor(int row, int col, Direction dir) {
+        if (row >= dimension || col >= dimension) {
+            return new Move(col, row, dir);
+        }
         return byDirection.get(dir)[row][col];
     }
+
+    Move moveFor(int packedMove, int width) {
+        final var cell = PackedMove.cell(packedMove);
+        return moveFor(cell / width, cell % width, PackedMove.direction(packedMove));
+    }
 }
@@ -1,7 +1,7 @@
 package vexed;
 
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 
 public class MoveHistory {
@@ -9,7 +9,7 @@ public class MoveHistory {
     private final List<Move> moves;
 
     MoveHistory() {
-        moves = new LinkedList<>();
+        moves = new ArrayList<>();
     }
 
     MoveHistory(MoveHistory moveHistory) {
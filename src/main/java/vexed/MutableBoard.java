@@ -0,0 +1,351 @@
+package vexed;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.stream.Stream;
+
+import static vexed.Direction.*;
+
+/**
+ * Board changed in place by {@link #make} and changed back by
+ * {@link #unmake}, for depth-first searches that walk one path at a time.
+ * Every cell a move changes, the falls and clears after it included, goes
+ * into an undo log with what it held before, so undoing a move costs what
+ * making it did and neither allocates once the log has grown to the depth
+ * of the search. Equality and hashing follow the current contents, so a
+ * mutable board must not be kept in a set while it changes.
+ */
+public final class MutableBoard extends AbstractBoard {
+    private static final byte EMPTY = 0;
+    private static final byte WALL = (byte) Block.WALL_SYMBOL;
+
+    private final int width;
+    private final int height;
+    /** Row-major symbols, walls included. */
+    private final byte[] cells;
+    private final Block[] palette;
+    private final DeadStates deadStates;
+    private final PositionSupplier positionSupplier;
+    private final MoveCache moveCache;
+    private final Grid grid;
+    private long zobristHash;
+    private int blocks;
+
+    /** Changed cells, each packed as its index shifted left a byte over the symbol it held before. */
+    private int[] undo = new int[64];
+    private int undoSize;
+    /** Where the entries of each move still made start in the undo log. */
+    private int[] moveStarts = new int[16];
+    private int moves;
+    private int[] matched = new int[16];
+
+    /**
+     * A mutable copy of the board.
+     */
+    public MutableBoard(Board board) {
+        width = board.getWidth();
+        height = board.getHeight();
+        cells = board.getStateKey();
+        palette = new Block[1 << Byte.SIZE];
+        deadStates = DeadStates.forBoard(board);
+        if (board instanceof AbstractBoard abstractBoard) {
+            positionSupplier = abstractBoard.getPositionSupplier();
+            moveCache = abstractBoard.getMoveCache();
+        } else {
+            positionSupplier = new CachingPositionSupplier();
+            moveCache = new MoveCache(Math.max(width, height));
+        }
+        grid = positionSupplier.grid(width, height);
+        zobristHash = board.getZobristHash();
+
+        for (var cell = 0; cell < cells.length; cell++) {
+            if (cells[cell] != EMPTY) {
+                palette[cells[cell] & 0xFF] = board.getBlockAt(grid.position(cell));
+                if (cells[cell] != WALL) {
+                    blocks++;
+                }
+            }
+        }
+    }
+
+    private MutableBoard(MutableBoard board) {
+        width = board.width;
+        height = board.height;
+        cells = board.cells.clone();
+        palette = board.palette;
+        deadStates = board.deadStates;
+        positionSupplier = board.positionSupplier;
+        moveCache = board.moveCache;
+        grid = board.grid;
+        zobristHash = board.zobristHash;
+        blocks = board.blocks;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    PositionSupplier getPositionSupplier() {
+        return positionSupplier;
+    }
+
+    @Override
+    MoveCache getMoveCache() {
+        return moveCache;
+    }
+
+    @Override
+    public boolean isSolved() {
+        return blocks == 0;
+    }
+
+    @Override
+    public boolean isDead() {
+        return deadStates.isDead(cells);
+    }
+
+    @Override
+    public long getZobristHash() {
+        return zobristHash;
+    }
+
+    @Override
+    public byte[] getStateKey() {
+        return cells.clone();
+    }
+
+    @Override
+    public Block getBlockAt(Position position) {
+        if (!grid.contains(position)) {
+            return null;
+        }
+        final var symbol = cells[grid.cell(position)];
+        return symbol == EMPTY ? null : palette[symbol & 0xFF];
+    }
+
+    @Override
+    public Collection<Move> getAvailableMoves() {
+        final var packed = new IntMoveList();
+        getAvailableMoves(packed);
+
+        final var moves = new ArrayList<Move>(packed.size());
+        for (var i = 0; i < packed.size(); i++) {
+            moves.add(toMove(packed.get(i)));
+        }
+        return moves;
+    }
+
+    @Override
+    public void getAvailableMoves(IntMoveList moves) {
+        for (var row = height - 1; row >= 0; row--) {
+            addMoves(moves, row * width, Left);
+            addMoves(moves, row * width, Right);
+        }
+    }
+
+    private void addMoves(IntMoveList moves, int rowStart, Direction direction) {
+        for (var cell = rowStart; cell < rowStart + width; cell++) {
+            if (isBlock(cell) && isEmpty(grid.neighbour(cell, direction))) {
+                moves.add(PackedMove.pack(cell, direction));
+            }
+        }
+    }
+
+    @Override
+    public Stream<Board> applyMoves() {
+        return getAvailableMoves().stream().map(this::apply);
+    }
+
+    /**
+     * A copy of this board with the move made, leaving this one as it is.
+     */
+    @Override
+    public MutableBoard apply(Move move) {
+        final var board = new MutableBoard(this);
+        board.make(move);
+        return board;
+    }
+
+    @Override
+    public MutableBoard apply(int packedMove) {
+        final var board = new MutableBoard(this);
+        board.make(packedMove);
+        return board;
+    }
+
+    @Override
+    public Move toMove(int packedMove) {
+        return moveCache.moveFor(packedMove, width);
+    }
+
+    /**
+     * Makes the move on this board, then lets blocks fall and clear until
+     * the board is still.
+     */
+    public void make(Move move) {
+        if (!grid.contains(move.position())) {
+            throw new IllegalMoveException();
+        }
+        make(grid.cell(move.position()), move.direction());
+    }
+
+    /**
+     * Makes a move packed for this board's width.
+     */
+    public void make(int packedMove) {
+        final var cell = PackedMove.cell(packedMove);
+        if (cell >= cells.length) {
+            throw new IllegalMoveException();
+        }
+        make(cell, PackedMove.direction(packedMove));
+    }
+
+    private void make(int cell, Direction direction) {
+        final var target = grid.neighbour(cell, direction);
+        if (!isBlock(cell) || !isEmpty(target)) {
+            throw new IllegalMoveException();
+        }
+
+        if (moves == moveStarts.length) {
+            moveStarts = Arrays.copyOf(moveStarts, moves * 2);
+        }
+        moveStarts[moves++] = undoSize;
+
+        set(target, cells[cell]);
+        set(cell, EMPTY);
+        do {
+            settle();
+        } while (clear());
+    }
+
+    /**
+     * Takes back the last move made, along with everything that fell or
+     * cleared after it.
+     */
+    public void unmake() {
+        if (moves == 0) {
+            throw new IllegalStateException("no move to take back");
+        }
+
+        final var start = moveStarts[--moves];
+        while (undoSize > start) {
+            final var entry = undo[--undoSize];
+            restore(entry >>> Byte.SIZE, (byte) entry);
+        }
+    }
+
+    /**
+     * Number of moves made and not yet taken back.
+     */
+    public int depth() {
+        return moves;
+    }
+
+    private void set(int cell, byte symbol) {
+        if (undoSize == undo.length) {
+            undo = Arrays.copyOf(undo, undoSize * 2);
+        }
+        undo[undoSize++] = cell << Byte.SIZE | cells[cell] & 0xFF;
+        restore(cell, symbol);
+    }
+
+    /**
+     * Puts a symbol in a cell, keeping the hash and block count in step,
+     * without logging it.
+     */
+    private void restore(int cell, byte symbol) {
+        final var previous = cells[cell];
+        if (previous != EMPTY) {
+            zobristHash ^= Zobrist.key(cell / width, cell % width, (char) (previous & 0xFF));
+            blocks--;
+        }
+        if (symbol != EMPTY) {
+            zobristHash ^= Zobrist.key(cell / width, cell % width, (char) (symbol & 0xFF));
+            blocks++;
+        }
+        cells[cell] = symbol;
+    }
+
+    /**
+     * Drops the blocks of each column onto whatever is under them,
+     * working up from the bottom.
+     */
+    private void settle() {
+        for (var column = 0; column < width; column++) {
+            var floor = -1;
+
+            for (var row = height - 1; row >= 0; row--) {
+                final var symbol = cells[row * width + column];
+                if (symbol == EMPTY) {
+                    floor = floor < 0 ? row : floor;
+                } else if (symbol == WALL) {
+                    floor = -1;
+                } else if (floor >= 0) {
+                    set(floor-- * width + column, symbol);
+                    set(row * width + column, EMPTY);
+                }
+            }
+        }
+    }
+
+    /**
+     * Clears every block next to one of its own colour, all at once.
+     *
+     * @return whether any block was cleared
+     */
+    private boolean clear() {
+        var count = 0;
+
+        for (var cell = 0; cell < cells.length; cell++) {
+            final var symbol = cells[cell];
+            if (symbol == EMPTY || symbol == WALL) {
+                continue;
+            }
+            final var below = grid.neighbour(cell, Down);
+            if (below != Grid.NONE && cells[below] == symbol) {
+                count = match(count, cell, below);
+            }
+            final var right = grid.neighbour(cell, Right);
+            if (right != Grid.NONE && cells[right] == symbol) {
+                count = match(count, cell, right);
+            }
+        }
+
+        for (var i = 0; i < count; i++) {
+            if (cells[matched[i]] != EMPTY) {
+                set(matched[i], EMPTY);
+            }
+        }
+
+        return count > 0;
+    }
+
+    private int match(int count, int cell, int neighbour) {
+        if (count + 2 > matched.length) {
+            matched = Arrays.copyOf(matched, matched.length * 2);
+        }
+        matched[count] = cell;
+        matched[count + 1] = neighbour;
+        return count + 2;
+    }
+
+    private boolean isBlock(int cell) {
+        final var symbol = cells[cell];
+        return symbol != EMPTY && symbol != WALL;
+    }
+
+    /**
+     * Whether a cell, which is {@link Grid#NONE} past the edge, is free.
+     */
+    private boolean isEmpty(int cell) {
+        return cell != Grid.NONE && cells[cell] == EMPTY;
+    }
+}
@@ -0,0 +1,39 @@
+package vexed;
+
+/**
+ * Moves packed into an int as {@code cell << 2 | direction}, where cell is
+ * the row-major index of the moved block on a board of known width.
+ */
+final class PackedMove {
+    private static final int DIRECTION_BITS = 2;
+    private static final int DIRECTION_MASK = (1 << DIRECTION_BITS) - 1;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private PackedMove() {
+    }
+
+    static int pack(int row, int column, Direction direction, int width) {
+        return pack(row * width + column, direction);
+    }
+
+    static int pack(int cell, Direction direction) {
+        return cell << DIRECTION_BITS | direction.ordinal();
+    }
+
+    static int pack(Move move, int width) {
+        return pack(move.position().row(), move.position().column(), move.direction(), width);
+    }
+
+    static int cell(int packedMove) {
+        return packedMove >>> DIRECTION_BITS;
+    }
+
+    static Direction direction(int packedMove) {
+        return DIRECTIONS[packedMove & DIRECTION_MASK];
+    }
+
+    static Move unpack(int packedMove, int width) {
+        final var cell = cell(packedMove);
+        return new Move(cell % width, cell / width, direction(packedMove));
+    }
+}
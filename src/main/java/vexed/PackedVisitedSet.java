@@ -0,0 +1,145 @@
+package vexed;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Open-addressing hash set of board state keys. Slot i holds the board's
+ * Zobrist hash in {@code hashes[i]} and its state key in the i-th
+ * fixed-size record of {@code keys}, which is either a heap buffer or a
+ * direct one. Collisions are resolved by linear probing; a zero hash marks
+ * an empty slot.
+ */
+class PackedVisitedSet implements VisitedSet {
+    private static final int INITIAL_CAPACITY = 1 << 10;
+    private static final int MAX_LOAD_PERCENT = 75;
+
+    private final boolean direct;
+    private long[] hashes;
+    private ByteBuffer keys;
+    private int keyLength = -1;
+    private int size;
+
+    PackedVisitedSet(boolean direct) {
+        this.direct = direct;
+        hashes = new long[INITIAL_CAPACITY];
+    }
+
+    @Override
+    public boolean add(Board board) {
+        return add(board.getZobristHash(), board.getStateKey());
+    }
+
+    @Override
+    public boolean contains(Board board) {
+        return contains(board.getZobristHash(), board.getStateKey());
+    }
+
+    /**
+     * Records a state key filed under the given hash; equal keys must
+     * come with equal hashes.
+     */
+    boolean add(long keyHash, byte[] key) {
+        final var hash = nonZero(keyHash);
+        initialize(key.length);
+
+        final var slot = find(hash, key);
+        if (hashes[slot] != 0) {
+            return false;
+        }
+
+        if ((size + 1) * 100L > hashes.length * (long) MAX_LOAD_PERCENT) {
+            grow();
+            put(find(hash, key), hash, key);
+        } else {
+            put(slot, hash, key);
+        }
+        size++;
+        return true;
+    }
+
+    boolean contains(long keyHash, byte[] key) {
+        if (size == 0) {
+            return false;
+        }
+        return key.length == keyLength && hashes[find(nonZero(keyHash), key)] != 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long bytesUsed() {
+        return (long) hashes.length * Long.BYTES + (keys == null ? 0 : keys.capacity());
+    }
+
+    private void initialize(int length) {
+        if (keys == null) {
+            keyLength = length;
+            keys = allocate(hashes.length);
+        } else if (length != keyLength) {
+            throw new IllegalArgumentException("boards of different sizes cannot share a visited set");
+        }
+    }
+
+    /**
+     * The slot holding the key, or the empty slot where it belongs.
+     */
+    private int find(long hash, byte[] key) {
+        final var mask = hashes.length - 1;
+        var slot = spread(hash) & mask;
+
+        while (hashes[slot] != 0 && !(hashes[slot] == hash && keyEquals(slot, key))) {
+            slot = (slot + 1) & mask;
+        }
+
+        return slot;
+    }
+
+    private boolean keyEquals(int slot, byte[] key) {
+        final var offset = slot * keyLength;
+        for (var i = 0; i < keyLength; i++) {
+            if (keys.get(offset + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void put(int slot, long hash, byte[] key) {
+        hashes[slot] = hash;
+        keys.put(slot * keyLength, key);
+    }
+
+    private void grow() {
+        final var oldHashes = hashes;
+        final var oldKeys = keys;
+        hashes = new long[oldHashes.length * 2];
+        keys = allocate(hashes.length);
+
+        final var key = new byte[keyLength];
+        for (var slot = 0; slot < oldHashes.length; slot++) {
+            if (oldHashes[slot] != 0) {
+                oldKeys.get(slot * keyLength, key);
+                put(find(oldHashes[slot], key), oldHashes[slot], key);
+            }
+        }
+    }
+
+    private ByteBuffer allocate(int slots) {
+        final var bytes = (long) slots * keyLength;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalStateException("visited set cannot hold more than " + size + " states");
+        }
+        return direct ? ByteBuffer.allocateDirect((int) bytes) : ByteBuffer.allocate((int) bytes);
+    }
+
+    private static long nonZero(long hash) {
+        return hash == 0 ? 1 : hash;
+    }
+
+    private static int spread(long hash) {
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
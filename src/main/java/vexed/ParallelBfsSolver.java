@@ -0,0 +1,301 @@
+package vexed;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Breadth-first search spread over several threads. Every thread owns one
+ * shard of the visited set, picked by the board's Zobrist hash, so only
+ * the owner ever reads or writes it. Successors are handed to their
+ * owner in batches through lock-free queues. Each thread works through
+ * its own part of a layer; the threads only wait for each other where one
+ * layer ends and the next begins, which keeps the first solution found a
+ * shortest one.
+ */
+public class ParallelBfsSolver implements Solver {
+    private static final int BATCH_SIZE = 64;
+
+    private final int threads;
+    private final Supplier<VisitedSet> visitedSets;
+
+    public ParallelBfsSolver() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ParallelBfsSolver(int threads) {
+        this(threads, VisitedSet::onHeap);
+    }
+
+    public ParallelBfsSolver(int threads, Supplier<VisitedSet> visitedSets) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("need at least one thread");
+        }
+        this.threads = threads;
+        this.visitedSets = visitedSets;
+    }
+
+    @Override
+    public Solution solve(Board board) throws UnsolveableBoardException {
+        return solve(board, SearchListener.NONE);
+    }
+
+    @Override
+    public Solution solve(Board board, SearchListener listener) throws UnsolveableBoardException {
+        return new Search(board, listener).run();
+    }
+
+    private class Search {
+        private final Shard[] shards = new Shard[threads];
+        private final AtomicReference<SearchNode> solution = new AtomicReference<>();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final AtomicLong sentThisLayer = new AtomicLong();
+        private final CyclicBarrier layerEnd = new CyclicBarrier(threads, this::endLayer);
+        private final List<Future<?>> workers = new CopyOnWriteArrayList<>();
+        private final SearchListener listener;
+        /** Only keeps the time; the shards do the counting. */
+        private final SearchStats stats = new SearchStats();
+        private volatile boolean finished;
+
+        Search(Board board, SearchListener listener) {
+            this.listener = listener;
+            for (var i = 0; i < threads; i++) {
+                shards[i] = new Shard(visitedSets.get());
+            }
+            final var root = SearchNode.root(board);
+            final var owner = shards[shardIndex(board, shards[0].visited)];
+            owner.stats.generated(0);
+            if (board.isDead()) {
+                owner.stats.pruned();
+            } else {
+                owner.inbox(0).add(List.of(root));
+            }
+        }
+
+        Solution run() {
+            final var executor = Executors.newFixedThreadPool(threads);
+            try {
+                for (final var shard : shards) {
+                    workers.add(executor.submit(() -> work(shard)));
+                }
+                if (failure.get() != null) {
+                    // a worker failed before the others were all submitted
+                    abort();
+                }
+                for (final var worker : workers) {
+                    try {
+                        worker.get();
+                    } catch (final CancellationException e) {
+                        // stopped because another worker failed
+                    }
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("search cancelled");
+            } catch (final ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+
+            if (failure.get() != null) {
+                throw new IllegalStateException(failure.get());
+            }
+
+            return finish();
+        }
+
+        private Solution finish() {
+            var states = 0;
+            var bytes = 0L;
+            var noFalsePositive = 1.0;
+            for (final var shard : shards) {
+                states += shard.visited.size();
+                bytes += shard.visited.bytesUsed();
+                noFalsePositive *= 1 - shard.visited.falsePositiveProbability();
+            }
+
+            final var errorProbability = 1 - noFalsePositive;
+            final var node = solution.get();
+            if (node == null) {
+                throw new UnsolveableBoardException("cannot solve board", errorProbability);
+            }
+            return new Solution(node.getMoveHistory(), states, states == 0 ? 0 : (double) bytes / states, total(),
+                    errorProbability);
+        }
+
+        /**
+         * The counts of every shard added up. Only safe while the shards
+         * are waiting between layers or done.
+         */
+        private SearchStats total() {
+            final var total = stats.snapshot();
+            for (final var shard : shards) {
+                total.add(shard.stats);
+            }
+            return total;
+        }
+
+        private void work(Shard shard) {
+            try {
+                for (var parity = 0; !finished; parity ^= 1) {
+                    shard.expandLayer(parity, this);
+                    layerEnd.await();
+                }
+            } catch (final BrokenBarrierException | CancellationException e) {
+                // another worker failed, or the search was cancelled
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (final RuntimeException | Error e) {
+                failure.compareAndSet(null, e);
+                abort();
+            }
+        }
+
+        /**
+         * Interrupts every worker, which breaks the barrier for those
+         * waiting at it and stops the rest at their next check or when
+         * they reach it. Resetting the barrier instead would leave workers
+         * that arrive later waiting for good.
+         */
+        private void abort() {
+            for (final var worker : workers) {
+                worker.cancel(true);
+            }
+        }
+
+        /**
+         * Runs on the last thread to reach the end of a layer.
+         */
+        private void endLayer() {
+            finished = solution.get() != null || sentThisLayer.getAndSet(0) == 0;
+
+            if (listener != SearchListener.NONE) {
+                final var total = total();
+                listener.progress(total);
+                if (!finished) {
+                    listener.depthReached(total.getMaxDepth(), total);
+                }
+            }
+        }
+
+        /**
+         * Hashes with the caller's own visited set, as the sets may keep
+         * working state and every set hashes the same state the same way.
+         */
+        int shardIndex(Board board, VisitedSet hasher) {
+            return Math.floorMod((int) (hasher.hash(board) >>> 32), threads);
+        }
+    }
+
+    private class Shard {
+        private final Queue<List<SearchNode>> evenInbox = new ConcurrentLinkedQueue<>();
+        private final Queue<List<SearchNode>> oddInbox = new ConcurrentLinkedQueue<>();
+        private final VisitedSet visited;
+        private final SearchStats stats = new SearchStats();
+        private final IntMoveList moves = new IntMoveList();
+
+        Shard(VisitedSet visited) {
+            this.visited = visited;
+        }
+
+        Queue<List<SearchNode>> inbox(int parity) {
+            return parity == 0 ? evenInbox : oddInbox;
+        }
+
+        /**
+         * Deduplicates the nodes sent to this shard for the current layer
+         * and sends their successors on to the shards that own them. Dead
+         * successors are dropped here rather than sent.
+         */
+        void expandLayer(int parity, Search search) {
+            final var outgoing = new Batches(search, parity ^ 1, visited);
+
+            final var inbox = inbox(parity);
+            for (var batch = inbox.poll(); batch != null; batch = inbox.poll()) {
+                Cancellation.check();
+                for (final var node : batch) {
+                    final var board = node.getBoard();
+
+                    if (!visited.add(board)) {
+                        stats.duplicate();
+                    } else if (board.isSolved()) {
+                        search.solution.compareAndSet(null, node);
+                    } else if (search.solution.get() == null) {
+                        stats.expanded(node.getDepth());
+                        moves.clear();
+                        board.getAvailableMoves(moves);
+                        for (var i = 0; i < moves.size(); i++) {
+                            final var child = node.child(moves.get(i));
+                            stats.generated(child.getDepth());
+                            if (child.getBoard().isDead()) {
+                                stats.pruned();
+                            } else {
+                                outgoing.send(child);
+                            }
+                        }
+                        node.release();
+                    }
+                }
+            }
+
+            outgoing.flush();
+            stats.visited(visited);
+        }
+    }
+
+    /**
+     * Successors waiting to be sent, one batch per destination shard.
+     */
+    private class Batches {
+        private final Search search;
+        private final int parity;
+        private final VisitedSet hasher;
+        private final List<List<SearchNode>> pending = new ArrayList<>();
+
+        Batches(Search search, int parity, VisitedSet hasher) {
+            this.search = search;
+            this.parity = parity;
+            this.hasher = hasher;
+            for (var i = 0; i < threads; i++) {
+                pending.add(new ArrayList<>(BATCH_SIZE));
+            }
+        }
+
+        void send(SearchNode node) {
+            final var index = search.shardIndex(node.getBoard(), hasher);
+            final var batch = pending.get(index);
+            batch.add(node);
+
+            if (batch.size() == BATCH_SIZE) {
+                deliver(index);
+            }
+        }
+
+        void flush() {
+            for (var i = 0; i < threads; i++) {
+                if (!pending.get(i).isEmpty()) {
+                    deliver(i);
+                }
+            }
+        }
+
+        private void deliver(int index) {
+            final var batch = pending.get(index);
+            search.shards[index].inbox(parity).add(batch);
+            search.sentThisLayer.addAndGet(batch.size());
+            pending.set(index, new ArrayList<>(BATCH_SIZE));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package vexed;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Races several solvers on the same board, each on its own virtual thread,
+ * and returns whichever answer arrives first. Every strategy must return
+ * shortest solutions, so the first one to finish is as good as any. The
+ * others are interrupted, which their main loops notice through
+ * {@link Cancellation}.
+ */
+public class PortfolioSolver implements Solver {
+    private final List<Supplier<Solver>> strategies;
+
+    public PortfolioSolver() {
+        this(List.of(AStarSolver::new, ParallelBfsSolver::new));
+    }
+
+    public PortfolioSolver(List<Supplier<Solver>> strategies) {
+        if (strategies.isEmpty()) {
+            throw new IllegalArgumentException("need at least one strategy");
+        }
+        this.strategies = List.copyOf(strategies);
+    }
+
+    @Override
+    public Solution solve(Board board) throws UnsolveableBoardException {
+        return solve(board, SearchListener.NONE);
+    }
+
+    /**
+     * Every strategy reports to the listener, so callbacks can come from
+     * several threads at once.
+     */
+    @Override
+    public Solution solve(Board board, SearchListener listener) throws UnsolveableBoardException {
+        final var executor = Executors.newVirtualThreadPerTaskExecutor();
+        final var completion = new ExecutorCompletionService<Solution>(executor);
+        final var futures = new ArrayList<Future<Solution>>();
+
+        try {
+            for (final var strategy : strategies) {
+                futures.add(completion.submit(() -> strategy.get().solve(board, listener)));
+            }
+
+            RuntimeException failure = null;
+            for (var remaining = futures.size(); remaining > 0; remaining--) {
+                try {
+                    return completion.take().get();
+                } catch (final ExecutionException e) {
+                    if (e.getCause() instanceof UnsolveableBoardException unsolveable) {
+                        throw unsolveable;
+                    }
+                    failure = new IllegalStateException("strategy failed", e.getCause());
+                }
+            }
+            throw failure;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("search cancelled");
+        } finally {
+            for (final var future : futures) {
+                future.cancel(true);
+            }
+            executor.close();
+        }
+    }
+}
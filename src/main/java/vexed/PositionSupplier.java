@@ -2,4 +2,12 @@ package vexed;
 
 public interface PositionSupplier {
     Position getPosition(int row, int col);
+
+    /**
+     * The cells and neighbour tables of boards of the given size, made of
+     * this supplier's positions.
+     */
+    default Grid grid(int width, int height) {
+        return new Grid(width, height, this);
+    }
 }
@@ -0,0 +1,24 @@
+package vexed;
+
+/**
+ * Watches a search while it runs. Both callbacks run on a thread doing
+ * the search, so they should return quickly; the statistics passed in
+ * are snapshots and stay valid after the callback returns.
+ */
+public interface SearchListener {
+    SearchListener NONE = new SearchListener() {
+    };
+
+    /**
+     * Called every {@link SearchStats#PROGRESS_INTERVAL} expanded nodes.
+     * Parallel searches call it between layers instead.
+     */
+    default void progress(SearchStats stats) {
+    }
+
+    /**
+     * Called the first time the search generates a node at a new depth.
+     */
+    default void depthReached(int depth, SearchStats stats) {
+    }
+}
@@ -0,0 +1,99 @@
+package vexed;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * A board reached during a search, together with the node it was reached
+ * from and the packed move that led here. Boards do not carry their own
+ * history; the path is rebuilt from the parent links once a solution has
+ * been found. A search releases a node's board once it has expanded it,
+ * so the parent links of the nodes still queued keep only the path alive,
+ * not every board along it.
+ */
+final class SearchNode {
+    private static final int NO_MOVE = -1;
+
+    private Board board;
+    private final SearchNode parent;
+    private final int move;
+    private final int depth;
+
+    private SearchNode(Board board, SearchNode parent, int move, int depth) {
+        this.board = board;
+        this.parent = parent;
+        this.move = move;
+        this.depth = depth;
+    }
+
+    static SearchNode root(Board board) {
+        return new SearchNode(board, null, NO_MOVE, 0);
+    }
+
+    SearchNode child(Move move) {
+        return new SearchNode(board.apply(move), this, PackedMove.pack(move, board.getWidth()), depth + 1);
+    }
+
+    SearchNode child(int packedMove) {
+        return child(board, packedMove);
+    }
+
+    /**
+     * The child reached by the move from the given board, which must be
+     * this node's own, for a caller that keeps the board itself.
+     */
+    SearchNode child(Board from, int packedMove) {
+        return new SearchNode(from.apply(packedMove), this, packedMove, depth + 1);
+    }
+
+    Stream<SearchNode> children() {
+        final var moves = new IntMoveList();
+        board.getAvailableMoves(moves);
+        return IntStream.range(0, moves.size()).mapToObj(i -> child(moves.get(i)));
+    }
+
+    /**
+     * The board, or null once the node has been released.
+     */
+    Board getBoard() {
+        return board;
+    }
+
+    /**
+     * Drops the board once the node has been expanded; only its place in
+     * the path is needed after that.
+     */
+    void release() {
+        board = null;
+    }
+
+    SearchNode getParent() {
+        return parent;
+    }
+
+    int getMove() {
+        return move;
+    }
+
+    int getDepth() {
+        return depth;
+    }
+
+    /**
+     * The moves from the root, read with this node's board, which must not
+     * have been released.
+     */
+    MoveHistory getMoveHistory() {
+        final var moves = new Move[depth];
+
+        for (var node = this; node.parent != null; node = node.parent) {
+            moves[node.depth - 1] = board.toMove(node.move);
+        }
+
+        final var history = new MoveHistory();
+        for (final var move : moves) {
+            history.add(move);
+        }
+        return history;
+    }
+}
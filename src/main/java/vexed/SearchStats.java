@@ -0,0 +1,176 @@
+package vexed;
+
+import java.util.Arrays;
+
+/**
+ * What a search has done so far. Solvers keep one per search and update it
+ * as they go; listeners and solutions get snapshots. Updating is a few
+ * field increments, and listeners are only called when there is one.
+ */
+public final class SearchStats {
+    static final int PROGRESS_INTERVAL = 1 << 14;
+
+    private final SearchListener listener;
+    private final long startNanos;
+    private long elapsedNanos = -1;
+    private long expanded;
+    private long generated;
+    private long duplicates;
+    private long pruned;
+    private long peakVisited;
+    /** States expanded at each depth, once duplicates and dead boards are dropped. */
+    private long[] frontier = new long[16];
+    private int maxDepth = -1;
+
+    SearchStats() {
+        this(SearchListener.NONE);
+    }
+
+    SearchStats(SearchListener listener) {
+        this.listener = listener == SearchListener.NONE ? null : listener;
+        startNanos = System.nanoTime();
+    }
+
+    private SearchStats(SearchStats stats) {
+        listener = null;
+        startNanos = stats.startNanos;
+        elapsedNanos = System.nanoTime() - stats.startNanos;
+        expanded = stats.expanded;
+        generated = stats.generated;
+        duplicates = stats.duplicates;
+        pruned = stats.pruned;
+        peakVisited = stats.peakVisited;
+        frontier = stats.frontier.clone();
+        maxDepth = stats.maxDepth;
+    }
+
+    void expanded(int depth) {
+        if (depth >= frontier.length) {
+            frontier = Arrays.copyOf(frontier, Math.max(depth + 1, frontier.length * 2));
+        }
+        frontier[depth]++;
+
+        if (++expanded % PROGRESS_INTERVAL == 0 && listener != null) {
+            listener.progress(snapshot());
+        }
+    }
+
+    /**
+     * Forgets the states counted at each depth, for a search that starts
+     * over from the root.
+     */
+    void newIteration() {
+        Arrays.fill(frontier, 0);
+    }
+
+    void generated(int depth) {
+        generated++;
+        if (depth > maxDepth) {
+            maxDepth = depth;
+            if (listener != null) {
+                listener.depthReached(depth, snapshot());
+            }
+        }
+    }
+
+    void duplicate() {
+        duplicates++;
+    }
+
+    void pruned() {
+        pruned++;
+    }
+
+    void visited(VisitedSet visited) {
+        visited(visited.size());
+    }
+
+    void visited(long states) {
+        peakVisited = Math.max(peakVisited, states);
+    }
+
+    /**
+     * Adds counts kept separately, by a worker thread of a parallel search,
+     * without calling the listener.
+     */
+    void add(SearchStats other) {
+        expanded += other.expanded;
+        generated += other.generated;
+        duplicates += other.duplicates;
+        pruned += other.pruned;
+        peakVisited += other.peakVisited;
+        if (other.frontier.length > frontier.length) {
+            frontier = Arrays.copyOf(frontier, other.frontier.length);
+        }
+        for (var depth = 0; depth < other.frontier.length; depth++) {
+            frontier[depth] += other.frontier[depth];
+        }
+        maxDepth = Math.max(maxDepth, other.maxDepth);
+    }
+
+    /**
+     * A copy that no longer changes, timed up to now.
+     */
+    SearchStats snapshot() {
+        return new SearchStats(this);
+    }
+
+    public long getNodesExpanded() {
+        return expanded;
+    }
+
+    public long getNodesGenerated() {
+        return generated;
+    }
+
+    /**
+     * Nodes dropped because their board had already been visited.
+     */
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    /**
+     * Nodes dropped because their board could no longer be solved.
+     */
+    public long getPruned() {
+        return pruned;
+    }
+
+    public long getPeakVisited() {
+        return peakVisited;
+    }
+
+    /**
+     * The deepest depth a node was generated at, or -1 before the root.
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * States the search took in at the given depth: boards expanded there,
+     * not counting duplicates, dead boards or the solved one. For a
+     * breadth-first search that is the size of the layer. Iterative
+     * deepening counts its last iteration only.
+     */
+    public long getFrontierSize(int depth) {
+        return depth < frontier.length ? frontier[depth] : 0;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos < 0 ? System.nanoTime() - startNanos : elapsedNanos;
+    }
+
+    public double getNodesPerSecond() {
+        final var elapsed = getElapsedNanos();
+        return elapsed == 0 ? 0 : expanded * 1e9 / elapsed;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("expanded: %d, generated: %d, duplicates: %d, pruned: %d, peak visited: %d, "
+                             + "depth: %d, nodes/s: %.0f", expanded, generated, duplicates, pruned, peakVisited,
+                maxDepth, getNodesPerSecond());
+    }
+}
@@ -4,18 +4,67 @@ public class Solution {
 
     private final MoveHistory moveHistory;
     private final int numBoards;
+    private final double bytesPerState;
+    private final SearchStats stats;
+    private final double errorProbability;
 
-    Solution(final MoveHistory moveHistory, final int numBoards) {
+    Solution(final MoveHistory moveHistory, final int numBoards, final double bytesPerState, final SearchStats stats) {
+        this(moveHistory, numBoards, bytesPerState, stats, 0);
+    }
+
+    Solution(final MoveHistory moveHistory, final VisitedSet visited, final SearchStats stats) {
+        this(moveHistory, visited.size(), visited.size() == 0 ? 0 : (double) visited.bytesUsed() / visited.size(),
+                stats, visited.falsePositiveProbability());
+    }
+
+    Solution(final MoveHistory moveHistory, final int numBoards, final double bytesPerState,
+             final SearchStats stats, final double errorProbability) {
         this.moveHistory = moveHistory;
         this.numBoards = numBoards;
+        this.bytesPerState = bytesPerState;
+        this.stats = stats.snapshot();
+        this.errorProbability = errorProbability;
     }
 
     MoveHistory getMoveHistory() {
         return moveHistory;
     }
 
+    int getNumBoards() {
+        return numBoards;
+    }
+
+    double getBytesPerState() {
+        return bytesPerState;
+    }
+
+    /**
+     * Boards discarded unexplored because they could not be solved.
+     */
+    long getNumPruned() {
+        return stats.getPruned();
+    }
+
+    /**
+     * The search statistics as they stood when the solution was found.
+     */
+    public SearchStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Estimated chance that a shorter solution was missed, which is zero
+     * unless the search used an approximate {@link VisitedSet}.
+     */
+    public double getErrorProbability() {
+        return errorProbability;
+    }
+
     @Override
     public String toString() {
-        return "Winning moves: " + moveHistory + "\nnumber of boards: " + numBoards;
+        return "Winning moves: " + moveHistory + "\nnumber of boards: " + numBoards
+               + String.format("\nbytes per state: %.1f", bytesPerState) + "\npruned boards: " + stats.getPruned()
+               + (errorProbability > 0 ? String.format("\nchance not shortest: %.3g", errorProbability) : "")
+               + "\n" + stats;
     }
 }
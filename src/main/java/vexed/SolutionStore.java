@@ -0,0 +1,349 @@
+package vexed;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Solved boards kept on disk between runs: for each board, how many moves
+ * a shortest solution takes and the move that starts it. Boards are keyed
+ * by size and state key, so the board implementation does not matter.
+ * <p>
+ * The file is memory-mapped. A header is followed by a table of
+ * fixed-size buckets and then an append-only log of records. A bucket
+ * slot holds the top half of the board's Zobrist hash and the offset of
+ * its record. New records are written and forced to disk before any slot
+ * points at them, and the header's end of log moves last. A crash
+ * therefore leaves at most a slot pointing past the end of the log, which
+ * is cleared when the store is next opened. The store is a cache: a board
+ * whose bucket is full is simply not stored.
+ */
+public final class SolutionStore implements Closeable {
+    /** Distance stored for boards that cannot be solved. */
+    public static final int UNSOLVABLE = -1;
+
+    private static final int MAGIC = 0x56585353;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int SLOTS_PER_BUCKET = 8;
+    private static final int SLOT_SIZE = Long.BYTES;
+    private static final int RECORD_HEADER_SIZE = 24;
+    private static final int DEFAULT_BUCKETS = 1 << 16;
+    private static final int NO_MOVE = -1;
+
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int BUCKETS_OFFSET = 8;
+    private static final int LOG_END_OFFSET = 16;
+    private static final int SIZE_OFFSET = 24;
+
+    private final FileChannel channel;
+    private final int buckets;
+    private MappedByteBuffer buffer;
+    /** End of the committed log. */
+    private long logEnd;
+    /** End of the records appended since the last commit. */
+    private long pendingEnd;
+    private int size;
+
+    /**
+     * What the store knows about a board: the length of a shortest
+     * solution, or {@link #UNSOLVABLE}, and its first move.
+     */
+    public record Entry(int distance, Move nextMove) {
+    }
+
+    private SolutionStore(FileChannel channel, int buckets) throws IOException {
+        this.channel = channel;
+        this.buckets = buckets;
+        final var tableEnd = HEADER_SIZE + (long) buckets * SLOTS_PER_BUCKET * SLOT_SIZE;
+
+        if (channel.size() == 0) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, tableEnd * 2);
+            buffer.putInt(MAGIC_OFFSET, MAGIC);
+            buffer.putInt(VERSION_OFFSET, VERSION);
+            buffer.putInt(BUCKETS_OFFSET, buckets);
+            buffer.putLong(LOG_END_OFFSET, tableEnd);
+            buffer.force();
+        } else {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        }
+
+        logEnd = buffer.getLong(LOG_END_OFFSET);
+        pendingEnd = logEnd;
+        size = buffer.getInt(SIZE_OFFSET);
+        clearSlotsPastEnd();
+    }
+
+    public static SolutionStore open(Path file) throws IOException {
+        return open(file, DEFAULT_BUCKETS);
+    }
+
+    /**
+     * Opens the store, creating it with the given number of buckets if the
+     * file is empty or missing. An existing store keeps its own size.
+     */
+    static SolutionStore open(Path file, int buckets) throws IOException {
+        if (Integer.bitCount(buckets) != 1) {
+            throw new IllegalArgumentException("bucket count must be a power of two");
+        }
+
+        final var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0) {
+                return new SolutionStore(channel, buckets);
+            }
+
+            final var header = channel.size() < HEADER_SIZE ? null
+                    : channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header == null || header.getInt(MAGIC_OFFSET) != MAGIC || header.getInt(VERSION_OFFSET) != VERSION) {
+                throw new IOException("not a solution store: " + file);
+            }
+            return new SolutionStore(channel, header.getInt(BUCKETS_OFFSET));
+        } catch (final IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * What the store knows about the board, or null if nothing.
+     */
+    public synchronized Entry lookup(Board board) {
+        final var key = board.getStateKey();
+        final var offset = find(board, key);
+        if (offset < 0) {
+            return null;
+        }
+
+        final var distance = buffer.getInt(offset + 12);
+        final var move = buffer.getInt(offset + 16);
+        return new Entry(distance, move == NO_MOVE ? null : PackedMove.unpack(move, board.getWidth()));
+    }
+
+    /**
+     * Stores every board along a shortest solution of the board, each
+     * with the rest of the solution as its distance and next move.
+     */
+    public synchronized void putSolution(Board board, List<Move> moves) {
+        final var boards = new Board[moves.size() + 1];
+        boards[0] = board;
+        for (var i = 0; i < moves.size(); i++) {
+            boards[i + 1] = boards[i].apply(moves.get(i));
+        }
+
+        final var offsets = new long[boards.length];
+        for (var i = 0; i < boards.length; i++) {
+            final var move = i < moves.size() ? PackedMove.pack(moves.get(i), board.getWidth()) : NO_MOVE;
+            offsets[i] = append(boards[i], moves.size() - i, move);
+        }
+        commit(boards, offsets);
+    }
+
+    public synchronized void putUnsolvable(Board board) {
+        commit(new Board[]{board}, new long[]{append(board, UNSOLVABLE, NO_MOVE)});
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    /**
+     * Writes a record past the end of the log without publishing it.
+     *
+     * @return where it was written, or -1 if it was not worth writing
+     */
+    private long append(Board board, int distance, int move) {
+        final var key = board.getStateKey();
+        final var existing = find(board, key);
+        if (existing >= 0 && buffer.getInt(existing + 12) <= distance) {
+            return -1;
+        }
+
+        final var offset = pendingEnd;
+        final var length = RECORD_HEADER_SIZE + key.length;
+        if (!ensureCapacity(offset + length)) {
+            return -1;
+        }
+
+        final var at = (int) offset;
+        buffer.putLong(at, board.getZobristHash());
+        buffer.putShort(at + 8, (short) board.getWidth());
+        buffer.putShort(at + 10, (short) board.getHeight());
+        buffer.putInt(at + 12, distance);
+        buffer.putInt(at + 16, move);
+        buffer.put(at + RECORD_HEADER_SIZE, key);
+        buffer.putInt(at + 20, checksum(at, key.length));
+        pendingEnd += length;
+        return offset;
+    }
+
+    /**
+     * Makes appended records durable, then points their slots at them,
+     * then moves the end of the log past them.
+     */
+    private void commit(Board[] boards, long[] offsets) {
+        if (pendingEnd == logEnd) {
+            return;
+        }
+        buffer.force((int) logEnd, (int) (pendingEnd - logEnd));
+
+        for (var i = 0; i < boards.length; i++) {
+            if (offsets[i] >= 0 && publish(boards[i], boards[i].getStateKey(), offsets[i])) {
+                size++;
+            }
+        }
+        buffer.force(HEADER_SIZE, (int) (tableEnd() - HEADER_SIZE));
+
+        logEnd = pendingEnd;
+        buffer.putLong(LOG_END_OFFSET, logEnd);
+        buffer.putInt(SIZE_OFFSET, size);
+        buffer.force(0, HEADER_SIZE);
+    }
+
+    /**
+     * Points the board's slot at a new record, reusing the slot of an
+     * older record for the same board.
+     *
+     * @return whether the board is new to the store
+     */
+    private boolean publish(Board board, byte[] key, long offset) {
+        final var hash = board.getZobristHash();
+        final var fingerprint = hash >>> 32;
+        final var bucket = bucketOffset(hash);
+
+        for (var i = 0; i < SLOTS_PER_BUCKET; i++) {
+            final var slotOffset = bucket + i * SLOT_SIZE;
+            final var slot = buffer.getLong(slotOffset);
+            if (slot == 0) {
+                buffer.putLong(slotOffset, fingerprint << 32 | offset);
+                return true;
+            } else if (slot >>> 32 == fingerprint && matches((int) (slot & 0xFFFFFFFFL), board, key)) {
+                buffer.putLong(slotOffset, fingerprint << 32 | offset);
+                return false;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * The offset of the board's record, or -1.
+     */
+    private int find(Board board, byte[] key) {
+        final var hash = board.getZobristHash();
+        final var fingerprint = hash >>> 32;
+        final var bucket = bucketOffset(hash);
+
+        for (var i = 0; i < SLOTS_PER_BUCKET; i++) {
+            final var slot = buffer.getLong(bucket + i * SLOT_SIZE);
+            if (slot == 0) {
+                return -1;
+            } else if (slot >>> 32 == fingerprint) {
+                final var offset = (int) (slot & 0xFFFFFFFFL);
+                if (matches(offset, board, key)) {
+                    return offset;
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    private boolean matches(int offset, Board board, byte[] key) {
+        if (offset + RECORD_HEADER_SIZE + key.length > logEnd
+            || buffer.getLong(offset) != board.getZobristHash()
+            || buffer.getShort(offset + 8) != board.getWidth()
+            || buffer.getShort(offset + 10) != board.getHeight()
+            || buffer.getInt(offset + 20) != checksum(offset, key.length)) {
+            return false;
+        }
+
+        final var stored = new byte[key.length];
+        buffer.get(offset + RECORD_HEADER_SIZE, stored);
+        return Arrays.equals(stored, key);
+    }
+
+    private int checksum(int offset, int keyLength) {
+        final var crc = new CRC32();
+        crc.update(buffer.slice(offset, 20));
+        crc.update(buffer.slice(offset + RECORD_HEADER_SIZE, keyLength));
+        return (int) crc.getValue();
+    }
+
+    private int bucketOffset(long hash) {
+        return HEADER_SIZE + (int) (hash & (buckets - 1)) * SLOTS_PER_BUCKET * SLOT_SIZE;
+    }
+
+    private long tableEnd() {
+        return HEADER_SIZE + (long) buckets * SLOTS_PER_BUCKET * SLOT_SIZE;
+    }
+
+    /**
+     * Grows the mapping to hold the given end, doubling the file.
+     *
+     * @return false if the store has reached the largest size it can map
+     */
+    private boolean ensureCapacity(long end) {
+        if (end <= buffer.capacity()) {
+            return true;
+        } else if (end > Integer.MAX_VALUE) {
+            return false;
+        }
+
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.min(Integer.MAX_VALUE, Math.max(end,
+                    2L * buffer.capacity())));
+            return true;
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Drops slots published by a commit that crashed before moving the end
+     * of the log, closing up the gaps so that every bucket stays filled
+     * from the front.
+     */
+    private void clearSlotsPastEnd() {
+        var cleared = false;
+
+        for (var bucket = 0; bucket < buckets; bucket++) {
+            final var start = HEADER_SIZE + bucket * SLOTS_PER_BUCKET * SLOT_SIZE;
+            var kept = 0;
+            var used = 0;
+
+            for (; used < SLOTS_PER_BUCKET; used++) {
+                final var slot = buffer.getLong(start + used * SLOT_SIZE);
+                if (slot == 0) {
+                    break;
+                } else if ((slot & 0xFFFFFFFFL) < logEnd) {
+                    buffer.putLong(start + kept++ * SLOT_SIZE, slot);
+                }
+            }
+
+            for (var i = kept; i < used; i++) {
+                buffer.putLong(start + i * SLOT_SIZE, 0);
+                cleared = true;
+            }
+        }
+
+        if (cleared) {
+            buffer.force();
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package vexed;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
 
 public interface Solver {
 
@@ -9,4 +12,26 @@ public interface Solver {
      */
     Solution solve(Board board)
             throws UnsolveableBoardException;
+
+    /**
+     * Solves the board, telling the listener how the search is going.
+     * Solvers that cannot report on their search just solve the board.
+     */
+    default Solution solve(Board board, SearchListener listener)
+            throws UnsolveableBoardException {
+        return solve(board);
+    }
+
+    /**
+     * Solves the board on another thread, giving up once the deadline has
+     * passed. The future completes with the solution, with
+     * {@link UnsolveableBoardException} if there is none, or with
+     * {@link DeadlineExceededException}, carrying how deep the search got
+     * and how many nodes it explored, if time ran out. Cancelling the
+     * future, or the deadline passing, interrupts the search, which stops
+     * at its next check and releases any threads it started.
+     */
+    default CompletableFuture<Solution> solveAsync(Board board, Duration deadline) {
+        return AsyncSolve.start(this, board, deadline);
+    }
 }
@@ -0,0 +1,84 @@
+package vexed;
+
+/**
+ * Consults a {@link SolutionStore} before searching and fills it in
+ * afterwards. A board the store can solve is answered by following
+ * stored moves, without searching; otherwise the wrapped solver searches
+ * and every board along its solution is stored, so a later solve starting
+ * from any of them is answered from the store too. Only the board a solve
+ * starts from is looked up: the wrapped search does not consult the store,
+ * so passing through a stored board does not end it. Boards found to be
+ * unsolvable are stored as well. Answers from a search that may have
+ * dropped states, as one over a {@link VisitedSet#approximate} set can,
+ * are not stored, since they may be wrong and later runs would take them
+ * as exact.
+ */
+public class StoredSolver implements Solver {
+    private final Solver solver;
+    private final SolutionStore store;
+
+    public StoredSolver(Solver solver, SolutionStore store) {
+        this.solver = solver;
+        this.store = store;
+    }
+
+    @Override
+    public Solution solve(Board board) throws UnsolveableBoardException {
+        return solve(board, SearchListener.NONE);
+    }
+
+    @Override
+    public Solution solve(Board board, SearchListener listener) throws UnsolveableBoardException {
+        final var stored = replay(board);
+        if (stored != null) {
+            return stored;
+        }
+
+        final Solution solution;
+        try {
+            solution = solver.solve(board, listener);
+        } catch (final UnsolveableBoardException e) {
+            if (e.getErrorProbability() == 0) {
+                store.putUnsolvable(board);
+            }
+            throw e;
+        }
+
+        if (solution.getErrorProbability() == 0) {
+            store.putSolution(board, solution.getMoveHistory().getMoves());
+        }
+        return solution;
+    }
+
+    /**
+     * Follows stored moves from the board to a solved one, or returns null
+     * if the store does not know the whole way.
+     */
+    private Solution replay(Board board) {
+        var entry = store.lookup(board);
+        if (entry == null) {
+            return null;
+        } else if (entry.distance() == SolutionStore.UNSOLVABLE) {
+            throw new UnsolveableBoardException("stored as unsolvable");
+        }
+
+        final var moves = new MoveHistory();
+        var current = board;
+        while (entry.distance() > 0) {
+            final var distance = entry.distance();
+            try {
+                current = current.apply(entry.nextMove());
+            } catch (final IllegalMoveException e) {
+                return null;
+            }
+            moves.add(entry.nextMove());
+
+            entry = store.lookup(current);
+            if (entry == null || entry.distance() != distance - 1) {
+                return null;
+            }
+        }
+
+        return current.isSolved() ? new Solution(moves, 0, 0, new SearchStats()) : null;
+    }
+}
@@ -1,36 +1,38 @@
 package vexed;
 
-import java.util.*;
-import java.util.stream.Collector;
-import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
+import java.util.function.Supplier;
 
+/**
+ * Solves by streaming the {@link Frontier} layers reachable from the board
+ * and taking the first solved one, which is a shortest solution.
+ */
 public class StreamSolver implements Solver {
-    private static final int CHARACTERISTICS = Spliterator.NONNULL | Spliterator.ORDERED;
+    private final Supplier<VisitedSet> visitedSets;
 
-    @Override
-    public Solution solve(final Board initial) throws UnsolveableBoardException {
-        final var seenBoards = new HashSet<Board>();
-        for (var iter = List.of(initial).iterator(); iter.hasNext(); ) {
-            final var board = iter.next();
-
-            if (!seenBoards.contains(board)) {
-                seenBoards.add(board);
-
-                if (board.isSolved()) {
-                    return new Solution(board.getMoveHistory(), seenBoards.size());
-                }
+    public StreamSolver() {
+        this(VisitedSet::onHeap);
+    }
 
-                final var resulting = board.applyMoves();
-                final var toExplore = resulting.iterator();
-                iter = Stream.concat(toStream(iter), toStream(toExplore)).iterator();
-            }
-        }
+    public StreamSolver(Supplier<VisitedSet> visitedSets) {
+        this.visitedSets = visitedSets;
+    }
 
-        throw new UnsolveableBoardException(initial.toString());
+    @Override
+    public Solution solve(final Board initial) throws UnsolveableBoardException {
+        return solve(initial, SearchListener.NONE);
     }
 
-    private static <T> Stream<T> toStream(Iterator<T> iter) {
-        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iter, CHARACTERISTICS), false);
+    @Override
+    public Solution solve(final Board initial, final SearchListener listener) throws UnsolveableBoardException {
+        final var seenBoards = visitedSets.get();
+        final var stats = new SearchStats(listener);
+
+        return Frontier.layers(Frontier.root(initial, seenBoards, stats))
+                .flatMap(Frontier::nodes)
+                .filter(node -> node.getBoard().isSolved())
+                .findFirst()
+                .map(node -> new Solution(node.getMoveHistory(), seenBoards, stats))
+                .orElseThrow(() -> new UnsolveableBoardException(initial.toString(),
+                        seenBoards.falsePositiveProbability()));
     }
 }
@@ -0,0 +1,100 @@
+package vexed;
+
+/**
+ * Fixed-size table of the shallowest depth at which each state was reached
+ * during one iteration of a depth-first search. Slot i holds a Zobrist
+ * hash, a depth and the iteration that wrote them; a state hashing to an
+ * occupied slot simply replaces what was there, so the table never grows
+ * and a lost entry only costs re-expanding that state.
+ */
+final class TranspositionTable {
+    private final long[] hashes;
+    private final int[] depths;
+    private final int[] iterations;
+    private final int mask;
+    private int iteration = 1;
+    private int size;
+    private boolean complete = true;
+
+    /**
+     * @param capacity entries to keep, rounded up to a power of two
+     */
+    TranspositionTable(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity out of range: " + capacity);
+        }
+        final var slots = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        hashes = new long[slots];
+        depths = new int[slots];
+        iterations = new int[slots];
+        mask = slots - 1;
+    }
+
+    /**
+     * Forgets every entry in constant time by moving on to the next
+     * iteration; entries written under an earlier one no longer match.
+     */
+    void nextIteration() {
+        iteration++;
+        size = 0;
+        complete = true;
+    }
+
+    /**
+     * Whether the state was already reached this iteration at no greater
+     * depth. If not, records it at this depth.
+     */
+    boolean reachedNoDeeper(long hash, int depth) {
+        final var slot = slot(hash);
+
+        if (iterations[slot] == iteration) {
+            if (hashes[slot] != hash) {
+                complete = false;
+            } else if (depths[slot] <= depth) {
+                return true;
+            }
+        } else {
+            size++;
+        }
+
+        hashes[slot] = hash;
+        depths[slot] = depth;
+        iterations[slot] = iteration;
+        return false;
+    }
+
+    /**
+     * Whether the state was reached this iteration. Only exact while the
+     * table is complete.
+     */
+    boolean contains(long hash) {
+        final var slot = slot(hash);
+        return iterations[slot] == iteration && hashes[slot] == hash;
+    }
+
+    /**
+     * Whether every state reached this iteration is still in the table.
+     */
+    boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Slots written this iteration.
+     */
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return hashes.length;
+    }
+
+    long bytesUsed() {
+        return (long) hashes.length * (Long.BYTES + 2 * Integer.BYTES);
+    }
+
+    private int slot(long hash) {
+        return (int) (hash ^ hash >>> 32) & mask;
+    }
+}
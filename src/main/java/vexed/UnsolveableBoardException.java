@@ -1,11 +1,31 @@
 package vexed;
 
 public class UnsolveableBoardException extends RuntimeException {
+    private final double errorProbability;
+
     public UnsolveableBoardException(String message) {
-        super(message);
+        this(message, 0);
     }
 
     public UnsolveableBoardException() {
         super();
+        errorProbability = 0;
+    }
+
+    /**
+     * @param errorProbability estimated chance that a solution exists but
+     *                         the search lost track of it
+     */
+    public UnsolveableBoardException(String message, double errorProbability) {
+        super(message);
+        this.errorProbability = errorProbability;
+    }
+
+    /**
+     * Estimated chance that the board can be solved after all, which is
+     * zero unless the search used an approximate {@link VisitedSet}.
+     */
+    public double getErrorProbability() {
+        return errorProbability;
     }
 }
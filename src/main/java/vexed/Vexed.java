@@ -1,9 +1,69 @@
 package vexed;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.function.Supplier;
+
 public class Vexed {
+    private static final String USAGE =
+            "usage: Vexed [--threads N] [--budget SECONDS] [--store FILE] [--spill DIR] PATH...";
+
+    /**
+     * With no arguments, solves a sample board. Otherwise solves every
+     * level in the given pack files and directories, writing a JSON line
+     * per level: {@code [--threads N] [--budget SECONDS] [--store FILE] [--spill DIR] PATH...}
+     * With a store, solutions are looked up in and added to it. With a spill
+     * directory, levels are solved breadth-first with the layers kept there.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            solveSample();
+            return;
+        }
+
+        var threads = Runtime.getRuntime().availableProcessors();
+        var budget = Duration.ofSeconds(60);
+        Path storeFile = null;
+        Supplier<Solver> solvers = AStarSolver::new;
+        final var levels = new ArrayList<Level>();
+
+        for (var i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads" -> threads = Integer.parseInt(value(args, ++i));
+                case "--budget" -> budget = Duration.ofMillis((long) (Double.parseDouble(value(args, ++i)) * 1000));
+                case "--store" -> storeFile = Path.of(value(args, ++i));
+                case "--spill" -> {
+                    final var directory = Path.of(value(args, ++i));
+                    solvers = () -> new ExternalBfsSolver(directory);
+                }
+                default -> levels.addAll(LevelPack.read(Path.of(args[i])));
+            }
+        }
+
+        if (storeFile == null) {
+            new BatchSolver(solvers, threads, budget).solve(levels, System.out);
+        } else {
+            final var unstored = solvers;
+            try (var store = SolutionStore.open(storeFile)) {
+                new BatchSolver(() -> new StoredSolver(unstored.get(), store), threads, budget)
+                        .solve(levels, System.out);
+            }
+        }
+    }
+
+    private static String value(String[] args, int i) {
+        if (i == args.length) {
+            System.err.println("missing value for " + args[i - 1]);
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        return args[i];
+    }
 
-    public static void main(String[] args) {
-        final var solver = new ConcurrentSolver();
+    private static void solveSample() {
+        final var solver = new ParallelBfsSolver();
         final var positionSupplier = new CachingPositionSupplier();
         final var boardDesc = """
                 #A   #
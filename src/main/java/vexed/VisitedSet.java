@@ -0,0 +1,81 @@
+package vexed;
+
+/**
+ * The set of states a solver has already explored. Implementations keep
+ * only a compact encoding of each board rather than the board itself, and
+ * are not safe for concurrent use.
+ */
+public interface VisitedSet {
+
+    /**
+     * Records the board's state.
+     * Returns false if it had already been recorded.
+     */
+    boolean add(Board board);
+
+    boolean contains(Board board);
+
+    int size();
+
+    /**
+     * Bytes of storage currently reserved by the set.
+     */
+    long bytesUsed();
+
+    /**
+     * The hash the set files the board under. Boards the set treats as
+     * the same state have the same hash, so it can be used to split
+     * boards between several sets.
+     */
+    default long hash(Board board) {
+        return board.getZobristHash();
+    }
+
+    /**
+     * Estimated chance that the set has taken a new state for one already
+     * recorded, after which a search using it may return a longer
+     * solution than needed or miss one. Zero for exact sets.
+     */
+    default double falsePositiveProbability() {
+        return 0;
+    }
+
+    /**
+     * Exact set of state keys in open-addressing tables on the Java heap.
+     */
+    static VisitedSet onHeap() {
+        return new PackedVisitedSet(false);
+    }
+
+    /**
+     * Exact set of state keys with the key table in direct memory, outside
+     * the Java heap.
+     */
+    static VisitedSet offHeap() {
+        return new PackedVisitedSet(true);
+    }
+
+    /**
+     * Set on the Java heap that treats boards differing only by a
+     * left/right mirror image, where the walls allow it, or by which
+     * colour is which as the same state.
+     */
+    static VisitedSet canonical() {
+        return new CanonicalVisitedSet(new PackedVisitedSet(false));
+    }
+
+    /**
+     * Approximate set in a fixed-size Bloom filter, taking a byte or a few
+     * per expected state where an exact set needs a whole state key and
+     * more: about 1.2 bytes at a 1% rate, 4.8 at one in a million. The
+     * price is exactness: a new state is taken for a seen one with roughly
+     * the given chance, rising once more states than expected are added,
+     * and a search that drops states that way can miss the shortest
+     * solution or every solution. Solvers report the chance of
+     * that through {@link Solution#getErrorProbability()} and
+     * {@link UnsolveableBoardException#getErrorProbability()}.
+     */
+    static VisitedSet approximate(long expectedStates, double falsePositiveRate) {
+        return new BloomVisitedSet(expectedStates, falsePositiveRate);
+    }
+}
@@ -0,0 +1,46 @@
+package vexed;
+
+import java.util.Map;
+
+/**
+ * Zobrist hashing for boards. Each (row, column, symbol) triple has a
+ * fixed pseudo-random 64-bit key and a board hashes to the xor of the keys
+ * of its occupied cells, so moving or clearing a block only needs the keys
+ * of the cells involved. The keys come from a mixing function rather than
+ * a table, which keeps them identical across board sizes, implementations
+ * and runs.
+ */
+final class Zobrist {
+
+    private Zobrist() {
+    }
+
+    static long seed(int width, int height) {
+        return mix(((long) width << 32) | height);
+    }
+
+    static long key(int row, int column, char symbol) {
+        return mix(0x9E3779B97F4A7C15L + (((long) row << 40) | ((long) column << 20) | symbol));
+    }
+
+    static long key(Position position, Block block) {
+        return key(position.row(), position.column(), block.symbol());
+    }
+
+    static long hash(int width, int height, Map<Position, Block> contents) {
+        var hash = seed(width, height);
+        for (final var entry : contents.entrySet()) {
+            hash ^= key(entry.getKey(), entry.getValue());
+        }
+        return hash;
+    }
+
+    /**
+     * The finalizer of SplitMix64.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,45 @@
+package vexed;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class AStarSolverTest extends SolverTest {
+    @Override
+    Solver getSolverInstance() {
+        return new AStarSolver();
+    }
+
+    @Override
+    @Test
+    public void solveBenchmarkBoard() {
+        final var board = build(TestBoards.BENCHMARK, BoardFactory.BIT);
+        assertEquals(13, getSolverInstance().solve(board).getMoveHistory().size());
+    }
+
+    @Test
+    @Ignore
+    public void compareWithBreadthFirstSearch() {
+        System.out.printf("%-8s %-10s %6s %10s %10s%n", "board", "solver", "moves", "nodes", "ms");
+
+        for (final var interior : TestBoards.SOLVABLE) {
+            final var board = build(interior, BoardFactory.BIT);
+            report(interior, "bfs", new BfsSolver(), board);
+            report(interior, "a*", new AStarSolver(), board);
+            report(interior, "a* blind", new AStarSolver(Heuristic.UNSOLVED), board);
+        }
+
+        final var benchmark = build(TestBoards.BENCHMARK, BoardFactory.BIT);
+        report(TestBoards.BENCHMARK, "bfs", new BfsSolver(), benchmark);
+        report(TestBoards.BENCHMARK, "a*", new AStarSolver(), benchmark);
+    }
+
+    private static void report(String[] interior, String name, Solver solver, Board board) {
+        final var start = System.nanoTime();
+        final var solution = solver.solve(board);
+        final var millis = (System.nanoTime() - start) / 1_000_000;
+        System.out.printf("%-8s %-10s %6d %10d %10d%n", interior.length + "x" + interior[0].length(), name,
+                solution.getMoveHistory().size(), solution.getNumBoards(), millis);
+    }
+}
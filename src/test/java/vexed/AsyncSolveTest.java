@@ -0,0 +1,83 @@
+package vexed;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class AsyncSolveTest {
+
+    private final Board benchmark = TestBoards.build(TestBoards.BENCHMARK, new CachingPositionSupplier(),
+            new BlockCache(), new MoveCache(10), BoardFactory.BIT);
+
+    @Test
+    public void deadlineReportsHowFarTheSearchGot() throws Exception {
+        try {
+            new BfsSolver().solveAsync(benchmark, Duration.ofMillis(300)).get();
+            fail("expected the deadline to pass");
+        } catch (final ExecutionException e) {
+            final var stats = ((DeadlineExceededException) e.getCause()).getStats();
+            assertTrue(stats.getMaxDepth() > 0);
+            assertTrue(stats.getNodesExpanded() > 0);
+            assertTrue(e.getCause().getMessage().contains("depth " + stats.getMaxDepth()));
+        }
+    }
+
+    @Test
+    public void searchIsInterruptedWhenTheDeadlinePasses() throws Exception {
+        final var interrupted = new CountDownLatch(1);
+        final var future = stalled(interrupted).solveAsync(benchmark, Duration.ofMillis(20));
+
+        assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+        assertTrue(future.isCompletedExceptionally());
+    }
+
+    @Test
+    public void cancellingInterruptsTheSearch() throws Exception {
+        final var interrupted = new CountDownLatch(1);
+        final var future = stalled(interrupted).solveAsync(benchmark, Duration.ofMinutes(1));
+
+        assertTrue(future.cancel(true));
+        assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+        try {
+            future.get();
+            fail("expected cancellation");
+        } catch (final CancellationException expected) {
+        }
+    }
+
+    @Test
+    public void finishingDropsTheDeadline() throws Exception {
+        final var interrupted = new CountDownLatch(1);
+        final var future = stalled(interrupted).solveAsync(benchmark, Duration.ofDays(1));
+        assertTrue(AsyncSolve.DEADLINES.getQueue().stream()
+                .anyMatch(task -> ((Delayed) task).getDelay(TimeUnit.HOURS) > 1));
+
+        future.cancel(true);
+        assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+        assertTrue(AsyncSolve.DEADLINES.getQueue().stream()
+                .noneMatch(task -> ((Delayed) task).getDelay(TimeUnit.HOURS) > 1));
+    }
+
+    /**
+     * A solver that waits until it is interrupted and then counts down the
+     * latch.
+     */
+    private static Solver stalled(CountDownLatch interrupted) {
+        return board -> {
+            try {
+                new CountDownLatch(1).await();
+                throw new AssertionError("never released");
+            } catch (final InterruptedException e) {
+                interrupted.countDown();
+                throw new CancellationException();
+            }
+        };
+    }
+}
@@ -0,0 +1,73 @@
+package vexed;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BatchSolverTest {
+
+    @Test
+    public void writeOneLinePerLevel() {
+        final var levels = new ArrayList<Level>();
+        for (var i = 0; i < 20; i++) {
+            levels.add(new Level("pack#" + i, i % 2 == 0 ? "#.A.A#\n######" : "#A...#\n######"));
+        }
+
+        final var lines = run(new BatchSolver(AStarSolver::new, 3, Duration.ofSeconds(30)), levels);
+
+        assertEquals(20, lines.size());
+        assertEquals(10, lines.stream().filter(line -> line.contains("\"status\":\"solved\"")).count());
+        assertEquals(10, lines.stream().filter(line -> line.contains("\"status\":\"unsolvable\"")).count());
+        assertTrue(lines.contains(lines.stream()
+                .filter(line -> line.startsWith("{\"level\":\"pack#0\",\"status\":\"solved\",\"depth\":1,"
+                                                + "\"moves\":[[0,2,\"R\"]],\"expanded\":1,"))
+                .findFirst().orElseThrow()));
+    }
+
+    @Test
+    public void cancelLevelsThatRunOutOfTime() {
+        final Solver stalled = board -> {
+            try {
+                new CountDownLatch(1).await();
+                throw new AssertionError("never released");
+            } catch (final InterruptedException e) {
+                throw new CancellationException();
+            }
+        };
+
+        final var lines = run(new BatchSolver(() -> stalled, 2, Duration.ofMillis(50)),
+                List.of(new Level("slow#1", "#A.A#\n#####"), new Level("slow#2", "#A.A#\n#####"),
+                        new Level("slow#3", "#A.A#\n#####")));
+
+        assertEquals(3, lines.size());
+        for (final var line : lines) {
+            assertTrue(line, line.contains("\"status\":\"timeout\""));
+        }
+    }
+
+    @Test
+    public void reportLevelsThatCannotBeRead() {
+        final var lines = run(new BatchSolver(AStarSolver::new, 1, Duration.ofSeconds(30)),
+                List.of(new Level("bad \"one\"#1", "#A#\n#A..A#\n######")));
+
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0), lines.get(0).startsWith("{\"level\":\"bad \\\"one\\\"#1\",\"status\":\"error\""));
+    }
+
+    private static List<String> run(BatchSolver batch, List<Level> levels) {
+        final var bytes = new ByteArrayOutputStream();
+        batch.solve(levels, new PrintStream(bytes, true, StandardCharsets.UTF_8));
+        return Arrays.asList(bytes.toString(StandardCharsets.UTF_8).split("\n"));
+    }
+}
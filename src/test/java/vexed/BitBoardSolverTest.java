@@ -0,0 +1,13 @@
+package vexed;
+
+public class BitBoardSolverTest extends SolverTest {
+    @Override
+    Solver getSolverInstance() {
+        return new BfsSolver();
+    }
+
+    @Override
+    BoardFactory getBoardFactory() {
+        return BoardFactory.BIT;
+    }
+}
@@ -0,0 +1,41 @@
+package vexed;
+
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class BitBoardTest extends MapBoardTest {
+
+    private final BlockCache blockCache = new BlockCache();
+    private final MoveCache moveCache = new MoveCache(10);
+    private final PositionSupplier positionSupplier = new CachingPositionSupplier();
+
+    @Override
+    BoardFactory boardFactory() {
+        return BoardFactory.BIT;
+    }
+
+    @Test
+    public void equalToMapBoardWithSameContents() {
+        final var layout = """
+                #B  A#
+                #C # #
+                #A CB#
+                ######""";
+        final var bitBoard = MapBoard.fromString(layout, positionSupplier, blockCache, moveCache, BoardFactory.BIT);
+        final var mapBoard = MapBoard.fromString(layout, positionSupplier, blockCache, moveCache);
+        assertEquals(mapBoard, bitBoard);
+        assertEquals(bitBoard, mapBoard);
+        assertEquals(mapBoard.hashCode(), bitBoard.hashCode());
+
+        final var move = new Move(4, 0, Direction.Left);
+        assertEquals(mapBoard.apply(move), bitBoard.apply(move));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsBoardsWiderThanALong() {
+        BoardFactory.BIT.create(65, 1, Map.of(), positionSupplier, blockCache, moveCache);
+    }
+}
@@ -0,0 +1,8 @@
+package vexed;
+
+public class BloomBfsSolverTest extends SolverTest {
+    @Override
+    Solver getSolverInstance() {
+        return new BfsSolver(() -> VisitedSet.approximate(1 << 20, 1e-9));
+    }
+}
@@ -0,0 +1,98 @@
+package vexed;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+public class BloomVisitedSetTest {
+
+    private final BlockCache blockCache = new BlockCache();
+    private final MoveCache moveCache = new MoveCache(10);
+    private final PositionSupplier positionSupplier = new CachingPositionSupplier();
+
+    @Test
+    public void neverForgetsAState() {
+        final var states = Frontier.reachable(build(TestBoards.EVIL)).toList();
+        final var visited = new BloomVisitedSet(states.size(), 1e-9);
+
+        for (final var board : states) {
+            assertTrue(visited.add(board));
+        }
+        for (final var board : states) {
+            assertTrue(visited.contains(board));
+            assertFalse(visited.add(board));
+        }
+        assertEquals(states.size(), visited.size());
+        assertTrue(visited.falsePositiveProbability() < 1e-6);
+    }
+
+    @Test
+    public void sizedByExpectedStatesAndRate() {
+        final var visited = new BloomVisitedSet(1_000_000, 0.01);
+        // 9.9 bits per state for 1%, a little over the 9.6 an unblocked filter needs
+        assertEquals(1_236_992, visited.bytesUsed());
+        assertEquals(6, visited.hashes());
+        assertEquals(0, visited.falsePositiveRate(), 0);
+    }
+
+    @Test
+    public void estimatesTheRateItActuallyHas() {
+        final var states = Frontier.reachable(build(TestBoards.BENCHMARK)).limit(40_000).toList();
+        final var added = states.subList(0, 20_000);
+        final var unseen = states.subList(20_000, states.size());
+        final var visited = new BloomVisitedSet(added.size(), 0.05);
+        added.forEach(visited::add);
+
+        final var falsePositives = unseen.stream().filter(visited::contains).count();
+        final var observed = (double) falsePositives / unseen.size();
+        assertEquals(visited.falsePositiveRate(), observed, visited.falsePositiveRate() / 3);
+        assertTrue(visited.falsePositiveRate() < 0.08);
+    }
+
+    @Test
+    public void overfillingShowsInTheEstimate() {
+        final var states = Frontier.reachable(build(TestBoards.EVIL)).toList();
+        final var roomy = new BloomVisitedSet(states.size(), 0.01);
+        final var cramped = new BloomVisitedSet(states.size() / 20, 0.01);
+        states.forEach(roomy::add);
+        states.forEach(cramped::add);
+
+        assertTrue(roomy.falsePositiveRate() < 0.02);
+        assertTrue(cramped.falsePositiveRate() > 0.2);
+        assertTrue(cramped.size() < states.size());
+        assertTrue(cramped.falsePositiveProbability() > 0.99);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsRateOfOne() {
+        VisitedSet.approximate(100, 1);
+    }
+
+    @Test
+    public void solversReportTheChanceOfAWrongAnswer() {
+        final List<Supplier<Solver>> solvers = List.of(
+                () -> new BfsSolver(() -> VisitedSet.approximate(8, 0.5)),
+                () -> new ConcurrentSolver(() -> VisitedSet.approximate(8, 0.5)));
+
+        for (final var solver : solvers) {
+            try {
+                assertTrue(solver.get().solve(build(TestBoards.EVIL)).getErrorProbability() > 0.5);
+            } catch (final UnsolveableBoardException e) {
+                assertTrue(e.getErrorProbability() > 0.5);
+            }
+        }
+    }
+
+    @Test
+    public void exactSearchesAreCertain() {
+        assertEquals(0, new BfsSolver().solve(build(TestBoards.EVIL)).getErrorProbability(), 0);
+        assertEquals(0, new UnsolveableBoardException("cannot solve board").getErrorProbability(), 0);
+    }
+
+    private Board build(String[] rows) {
+        return TestBoards.build(rows, positionSupplier, blockCache, moveCache, BoardFactory.BIT);
+    }
+}
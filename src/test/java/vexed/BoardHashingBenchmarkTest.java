@@ -0,0 +1,146 @@
+package vexed;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Compares the old scan-order symbol hash with the Zobrist hash over every
+ * state reachable from the solver test boards: how often distinct states
+ * collide, and what a {@link HashSet} lookup costs with each.
+ */
+public class BoardHashingBenchmarkTest {
+    private static final int MAX_STATES = 200_000;
+    private static final int LOOKUP_ROUNDS = 20;
+
+    private final MoveCache moveCache = new MoveCache(10);
+    private final BlockCache blockCache = new BlockCache();
+    private final PositionSupplier positionSupplier = new CachingPositionSupplier();
+
+    @Test
+    @Ignore
+    public void compareHashFunctions() {
+        System.out.printf("%-10s %8s %14s %14s %14s %12s %12s%n", "board", "states",
+                "legacy coll.", "zobrist32 coll.", "zobrist64 coll.", "legacy ns", "zobrist ns");
+
+        for (final var interior : TestBoards.SOLVABLE) {
+            final var root = TestBoards.build(interior, positionSupplier, blockCache, moveCache, BoardFactory.MAP);
+            final var states = reachableStates(root);
+
+            System.out.printf("%-10s %8d %14.4f %14.4f %14.4f %12.1f %12.1f%n",
+                    interior.length + "x" + interior[0].length(),
+                    states.size(),
+                    collisionRate(states, LegacyKey::hash),
+                    collisionRate(states, Board::hashCode),
+                    collisionRate(states, Board::getZobristHash),
+                    lookupNanos(states, LegacyKey::new),
+                    lookupNanos(states, board -> board));
+        }
+    }
+
+    private static List<Board> reachableStates(Board root) {
+        final var seen = new HashSet<Board>();
+        final var queue = new LinkedList<Board>();
+        queue.add(root);
+
+        while (!queue.isEmpty() && seen.size() < MAX_STATES) {
+            final var board = queue.poll();
+            if (seen.add(board)) {
+                for (final var move : board.getAvailableMoves()) {
+                    queue.add(board.apply(move));
+                }
+            }
+        }
+
+        return new ArrayList<>(seen);
+    }
+
+    private static double collisionRate(List<Board> states, Function<Board, Object> hash) {
+        final var distinct = new HashSet<>();
+        for (final var board : states) {
+            distinct.add(hash.apply(board));
+        }
+        return 1.0 - (double) distinct.size() / states.size();
+    }
+
+    /**
+     * Average time of one successful {@code contains} on a set holding every state.
+     */
+    private static double lookupNanos(List<Board> states, Function<Board, Object> wrap) {
+        final var keys = new ArrayList<>(states.size());
+        for (final var board : states) {
+            keys.add(wrap.apply(board));
+        }
+        final Set<Object> set = new HashSet<>(keys);
+
+        var found = 0L;
+        var elapsed = 0L;
+        for (var round = 0; round < LOOKUP_ROUNDS; round++) {
+            final var start = System.nanoTime();
+            for (final var key : keys) {
+                if (set.contains(key)) {
+                    found++;
+                }
+            }
+            elapsed += System.nanoTime() - start;
+        }
+
+        if (found != (long) keys.size() * LOOKUP_ROUNDS) {
+            throw new AssertionError("lookups failed");
+        }
+        return (double) elapsed / found;
+    }
+
+    /**
+     * A board with the hash and cell-by-cell equality that boards used
+     * before they carried a Zobrist hash.
+     */
+    private record LegacyKey(Board board) {
+
+        static int hash(Board board) {
+            final var factor = 31;
+            var hashCode = 17;
+            hashCode = factor * hashCode + board.getWidth();
+            hashCode = factor * hashCode + board.getHeight();
+
+            for (var row = board.getHeight() - 1; row >= 0; row--) {
+                for (var column = board.getWidth() - 1; column >= 0; column--) {
+                    final var block = board.getBlockAt(new Position(column, row));
+                    if (block != null && !block.isWall()) {
+                        hashCode = factor * hashCode + Objects.hash(block);
+                    }
+                }
+            }
+
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof LegacyKey other)) {
+                return false;
+            }
+            for (var row = 0; row < board.getHeight(); row++) {
+                for (var column = 0; column < board.getWidth(); column++) {
+                    final var position = new Position(column, row);
+                    if (!Objects.equals(board.getBlockAt(position), other.board.getBlockAt(position))) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash(board);
+        }
+    }
+}
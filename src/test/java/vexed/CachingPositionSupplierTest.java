@@ -0,0 +1,65 @@
+package vexed;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CachingPositionSupplierTest {
+
+    @Test
+    public void growPastTheInitialTable() {
+        final var supplier = new CachingPositionSupplier();
+        assertEquals(new Position(10, 10), supplier.getPosition(10, 10));
+        assertEquals(new Position(64, 3), supplier.getPosition(3, 64));
+        assertEquals(new Position(2, 30), supplier.getPosition(30, 2));
+    }
+
+    @Test
+    public void supplyTheSamePositionEachTime() {
+        final var supplier = new CachingPositionSupplier();
+        assertSame(supplier.getPosition(4, 7), supplier.getPosition(4, 7));
+    }
+
+    @Test
+    public void keepPositionsWhenGrowing() {
+        final var supplier = new CachingPositionSupplier();
+        final var position = supplier.getPosition(4, 7);
+        supplier.getPosition(40, 70);
+        assertSame(position, supplier.getPosition(4, 7));
+    }
+
+    @Test
+    public void supplyPositionsToManyThreads() throws Exception {
+        final var supplier = new CachingPositionSupplier();
+        final var executor = Executors.newFixedThreadPool(8);
+        final var tasks = new ArrayList<Callable<Boolean>>();
+
+        for (var t = 0; t < 8; t++) {
+            final var offset = t;
+            tasks.add(() -> {
+                for (var size = 1; size < 80; size++) {
+                    final var row = (size + offset) % 80;
+                    final var position = supplier.getPosition(row, size);
+                    if (position.row() != row || position.column() != size) {
+                        return false;
+                    }
+                }
+                return true;
+            });
+        }
+
+        try {
+            for (final var result : executor.invokeAll(tasks)) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package vexed;
+
+public class CanonicalBfsSolverTest extends SolverTest {
+    @Override
+    Solver getSolverInstance() {
+        return new BfsSolver(VisitedSet::canonical);
+    }
+}
@@ -0,0 +1,70 @@
+package vexed;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CanonicalVisitedSetTest {
+
+    private final BlockCache blockCache = new BlockCache();
+    private final MoveCache moveCache = new MoveCache(10);
+    private final PositionSupplier positionSupplier = new CachingPositionSupplier();
+
+    private Board board(String layout) {
+        return MapBoard.fromString(layout, positionSupplier, blockCache, moveCache);
+    }
+
+    @Test
+    public void treatMirrorImagesAsTheSameState() {
+        final var visited = VisitedSet.canonical();
+        assertTrue(visited.add(board("#A.B.#\n######")));
+        assertFalse(visited.add(board("#.B.A#\n######")));
+        assertEquals(visited.hash(board("#A.B.#\n######")), visited.hash(board("#.B.A#\n######")));
+    }
+
+    @Test
+    public void keepMirrorImagesApartWhenTheWallsAreNot() {
+        final var visited = VisitedSet.canonical();
+        assertTrue(visited.add(board("#A.B.##\n#######")));
+        assertTrue(visited.add(board("#.B.A##\n#######")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectBoardsWithOtherWalls() {
+        final var visited = VisitedSet.canonical();
+        visited.add(board("#A.B.#\n######"));
+        visited.add(board("#A.B##\n######"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectBoardsOfAnotherSize() {
+        final var visited = VisitedSet.canonical();
+        visited.add(board("#A.B.#\n######"));
+        visited.add(board("#A.B.##\n#######"));
+    }
+
+    @Test
+    public void treatRecolouredBoardsAsTheSameState() {
+        final var visited = VisitedSet.canonical();
+        assertTrue(visited.add(board("#AB.A#\n######")));
+        assertTrue(visited.contains(board("#CD.C#\n######")));
+        assertTrue(visited.contains(board("#BA.B#\n######")));
+        assertFalse(visited.contains(board("#AB.B#\n######")));
+    }
+
+    @Test
+    public void solveSymmetricBoardsVisitingFewerStates() {
+        final var interior = new String[]{
+                "  A  B  ",
+                "  #  #  ",
+                "B      A",
+                "##    ##"};
+        final var board = TestBoards.build(interior, positionSupplier, blockCache, moveCache, BoardFactory.MAP);
+
+        final var exact = new BfsSolver().solve(board);
+        final var canonical = new BfsSolver(VisitedSet::canonical).solve(board);
+
+        assertEquals(exact.getMoveHistory().size(), canonical.getMoveHistory().size());
+        assertTrue(canonical.getNumBoards() < exact.getNumBoards());
+    }
+}
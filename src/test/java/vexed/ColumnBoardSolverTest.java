@@ -0,0 +1,13 @@
+package vexed;
+
+public class ColumnBoardSolverTest extends SolverTest {
+    @Override
+    Solver getSolverInstance() {
+        return new BfsSolver();
+    }
+
+    @Override
+    BoardFactory getBoardFactory() {
+        return BoardFactory.COLUMN;
+    }
+}
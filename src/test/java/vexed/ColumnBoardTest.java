@@ -0,0 +1,108 @@
+package vexed;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class ColumnBoardTest extends MapBoardTest {
+
+    private final BlockCache blockCache = new BlockCache();
+    private final MoveCache moveCache = new MoveCache(10);
+    private final PositionSupplier positionSupplier = new CachingPositionSupplier();
+
+    @Override
+    BoardFactory boardFactory() {
+        return BoardFactory.COLUMN;
+    }
+
+    @Test
+    public void equalToMapBoardWithSameContents() {
+        final var layout = """
+                #B  A#
+                #C # #
+                #A CB#
+                ######""";
+        final var columnBoard = MapBoard.fromString(layout, positionSupplier, blockCache, moveCache,
+                BoardFactory.COLUMN);
+        final var mapBoard = MapBoard.fromString(layout, positionSupplier, blockCache, moveCache);
+        assertEquals(mapBoard, columnBoard);
+        assertEquals(columnBoard, mapBoard);
+        assertEquals(mapBoard.hashCode(), columnBoard.hashCode());
+
+        final var move = new Move(4, 0, Direction.Left);
+        assertEquals(mapBoard.apply(move), columnBoard.apply(move));
+    }
+
+    @Test
+    public void sharesTheColumnsAMoveLeavesAlone() {
+        final var board = (ColumnBoard) MapBoard.fromString("""
+                #A   B  #
+                ##  ### #
+                #   B A #
+                #########""", positionSupplier, blockCache, moveCache, BoardFactory.COLUMN);
+        final var moved = board.apply(new Move(1, 0, Direction.Right));
+
+        assertNotSame(board.column(1), moved.column(1));
+        assertNotSame(board.column(2), moved.column(2));
+        for (var column = 3; column < board.getWidth(); column++) {
+            assertSame(board.column(column), moved.column(column));
+        }
+        assertSame(board.column(0), moved.column(0));
+    }
+
+    @Test
+    public void playsRandomGamesLikeMapBoard() {
+        final var random = new Random(20190);
+
+        for (var i = 0; i < 300; i++) {
+            final var width = 3 + random.nextInt(6);
+            final var builder = new MapBoard.Builder(width);
+            for (var row = 2 + random.nextInt(6); row > 0; row--) {
+                final var text = new StringBuilder();
+                for (var column = 0; column < width; column++) {
+                    text.append(" # AB C".charAt(random.nextInt(7)));
+                }
+                builder.addInteriorRow(text.toString());
+            }
+
+            Board expected = builder.build(positionSupplier, blockCache, moveCache);
+            Board actual = MapBoard.fromString(expected.toString().replace('.', ' '), positionSupplier, blockCache,
+                    moveCache, BoardFactory.COLUMN);
+
+            for (var step = 0; step < 30 && !expected.isSolved(); step++) {
+                final var moves = new ArrayList<>(expected.getAvailableMoves());
+                TestSupport.assertEqualContents(moves, actual.getAvailableMoves());
+                if (moves.isEmpty()) {
+                    break;
+                }
+
+                final var move = moves.get(random.nextInt(moves.size()));
+                expected = expected.apply(move);
+                actual = actual.apply(move);
+                assertEquals(expected.toString(), actual.toString());
+                assertEquals(expected.getZobristHash(), actual.getZobristHash());
+                assertEquals(expected.isDead(), actual.isDead());
+                assertEquals(expected.isSolved(), actual.isSolved());
+            }
+        }
+    }
+
+    @Test
+    public void noWidthLimit() {
+        final var layout = new HashMap<Position, Block>();
+        for (var column = 0; column < 100; column++) {
+            layout.put(new Position(column, 1), Block.wall());
+        }
+        layout.put(new Position(1, 0), new Block('A'));
+        layout.put(new Position(98, 0), new Block('A'));
+
+        final var board = BoardFactory.COLUMN.create(100, 2, layout, positionSupplier, blockCache, moveCache);
+        assertEquals(96, new AStarSolver().solve(board).getMoveHistory().size());
+    }
+}
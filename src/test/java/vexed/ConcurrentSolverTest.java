@@ -1,8 +1,32 @@
 package vexed;
 
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+
 public class ConcurrentSolverTest extends SolverTest {
+    /** Takes a few layers of expanding, and so the workers' threads, to find unsolvable. */
+    private static final String UNSOLVABLE = "# BAB#\n##  A#\n# AB##\n######";
+
     @Override
     Solver getSolverInstance() {
         return new ConcurrentSolver();
     }
+
+    @Test
+    public void releaseThreadsWhenBoardIsUnsolvable() throws Exception {
+        final var before = Thread.activeCount();
+        for (var i = 0; i < 5; i++) {
+            try {
+                new ConcurrentSolver().solve(MapBoard.fromString(UNSOLVABLE, new CachingPositionSupplier(),
+                        new BlockCache(), new MoveCache(10)));
+            } catch (final UnsolveableBoardException expected) {
+            }
+        }
+
+        for (var wait = 0; wait < 100 && Thread.activeCount() > before; wait++) {
+            Thread.sleep(50);
+        }
+        assertTrue(Thread.activeCount() + " threads, " + before + " before", Thread.activeCount() <= before);
+    }
 }
@@ -0,0 +1,69 @@
+package vexed;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DeadStatesTest {
+
+    private final BlockCache blockCache = new BlockCache();
+    private final MoveCache moveCache = new MoveCache(10);
+    private final PositionSupplier positionSupplier = new CachingPositionSupplier();
+
+    @Test
+    public void loneBlockIsDead() {
+        assertTrue(isDead("#A B B#\n#######"));
+    }
+
+    @Test
+    public void blocksThatCanMeetAreNotDead() {
+        assertFalse(isDead("""
+                #A   #
+                ##   #
+                #  A #
+                ######"""));
+    }
+
+    @Test
+    public void blocksThatCannotClimbToEachOtherAreDead() {
+        assertTrue(isDead("""
+                #A # A#
+                ### ###
+                #######"""));
+    }
+
+    @Test
+    public void blocksOnlyMeetingAcrossAWallAreDead() {
+        assertTrue(isDead("""
+                #A#A#
+                #####"""));
+    }
+
+    @Test
+    public void solvedBoardIsNotDead() {
+        assertFalse(isDead("# #"));
+    }
+
+    @Test
+    public void scansStartAfreshForEachBoard() {
+        final var board = MapBoard.fromString("#A B B#\n#######", positionSupplier, blockCache, moveCache);
+        final var deadStates = DeadStates.forBoard(board);
+
+        final var lone = deadStates.scan();
+        lone.block(1, 'A');
+        lone.block(3, 'B');
+        lone.block(5, 'B');
+        assertTrue(lone.isDead());
+
+        final var pair = deadStates.scan();
+        pair.block(3, 'B');
+        pair.block(5, 'B');
+        assertFalse(pair.isDead());
+    }
+
+    private boolean isDead(String layout) {
+        final var board = MapBoard.fromString(layout, positionSupplier, blockCache, moveCache);
+        return DeadStates.forBoard(board).isDead(board.getStateKey());
+    }
+}
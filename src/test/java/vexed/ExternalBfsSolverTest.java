@@ -0,0 +1,48 @@
+package vexed;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ExternalBfsSolverTest extends SolverTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * A small chunk size, so that every layer spills several runs.
+     */
+    @Override
+    Solver getSolverInstance() {
+        return new ExternalBfsSolver(folder.getRoot().toPath(), 16);
+    }
+
+    @Test
+    public void solutionsReplayToASolvedBoard() {
+        for (final var interior : TestBoards.SOLVABLE) {
+            final var board = build(interior);
+            final var solution = new ExternalBfsSolver(folder.getRoot().toPath(), 16).solve(board);
+
+            var replayed = board;
+            for (final var move : solution.getMoveHistory().getMoves()) {
+                replayed = replayed.apply(move);
+            }
+            assertTrue(replayed.isSolved());
+        }
+    }
+
+    @Test
+    public void removeLayerFilesWhenDone() throws IOException {
+        final var board = build(TestBoards.EVIL, BoardFactory.BIT);
+        new ExternalBfsSolver(folder.getRoot().toPath(), 16).solve(board);
+
+        try (var files = Files.list(folder.getRoot().toPath())) {
+            assertEquals(0, files.count());
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package vexed;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class FrontierTest {
+
+    private final BlockCache blockCache = new BlockCache();
+    private final MoveCache moveCache = new MoveCache(10);
+    private final PositionSupplier positionSupplier = new CachingPositionSupplier();
+
+    @Test
+    public void reachesEveryLiveStateOnce() {
+        final var root = TestBoards.build(TestBoards.EVIL, positionSupplier, blockCache, moveCache, BoardFactory.BIT);
+        final var expected = new HashSet<Board>();
+        final var queue = new LinkedList<Board>();
+        queue.add(root);
+
+        while (!queue.isEmpty()) {
+            final var board = queue.poll();
+            if (!board.isDead() && expected.add(board)) {
+                board.applyMoves().forEach(queue::add);
+            }
+        }
+
+        final var reached = Frontier.reachable(root).toList();
+        assertEquals(expected.size(), reached.size());
+        assertEquals(expected, new HashSet<>(reached));
+    }
+
+    @Test
+    public void layersFollowTheMovesNeeded() {
+        final var root = TestBoards.build(TestBoards.HELLISH, positionSupplier, blockCache, moveCache,
+                BoardFactory.BIT);
+        final var moves = new BfsSolver().solve(root).getMoveHistory().size();
+        final var firstSolved = Frontier.layers(root)
+                .filter(layer -> layer.boards().anyMatch(Board::isSolved))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(moves, firstSolved.depth());
+    }
+
+    @Test
+    public void searchStatsCountTheStatesOfEachLayer() {
+        final var root = TestBoards.build(TestBoards.HELLISH, positionSupplier, blockCache, moveCache,
+                BoardFactory.BIT);
+        final var solution = new BfsSolver().solve(root);
+        final var moves = solution.getMoveHistory().size();
+        final var layers = Frontier.layers(root).limit(moves).toList();
+
+        for (final var layer : layers) {
+            assertEquals(layer.size(), solution.getStats().getFrontierSize(layer.depth()));
+        }
+    }
+
+    @Test
+    public void layersAreSizedAndSplit() {
+        final var root = TestBoards.build(TestBoards.EVIL, positionSupplier, blockCache, moveCache, BoardFactory.BIT);
+        final var layer = Frontier.layers(root).max((a, b) -> Integer.compare(a.size(), b.size())).orElseThrow();
+        final var spliterator = layer.boards().parallel().spliterator();
+
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+        assertEquals(layer.size(), spliterator.getExactSizeIfKnown());
+        final var prefix = spliterator.trySplit();
+        assertNotNull(prefix);
+        assertEquals(layer.size(), prefix.getExactSizeIfKnown() + spliterator.getExactSizeIfKnown());
+    }
+
+    @Test
+    public void parallelStreamsSeeTheSameBoards() {
+        final var root = TestBoards.build(TestBoards.EVIL, positionSupplier, blockCache, moveCache, BoardFactory.BIT);
+        final var sequential = Frontier.layers(root)
+                .map(layer -> layer.boards().collect(Collectors.toSet()))
+                .toList();
+        final var parallel = Frontier.layers(root)
+                .map(layer -> layer.boards().parallel().collect(Collectors.toSet()))
+                .toList();
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    public void deadBoardsHaveNoLayers() {
+        final var board = MapBoard.fromString("#A  BB#\n#######", positionSupplier, blockCache, moveCache);
+        assertEquals(0, Frontier.reachable(board).count());
+    }
+}
@@ -0,0 +1,48 @@
+package vexed;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class GridTest {
+
+    private final PositionSupplier positionSupplier = new CachingPositionSupplier();
+
+    @Test
+    public void stepsToNeighboursInsideTheBoard() {
+        final var grid = positionSupplier.grid(4, 3);
+        final var cell = grid.cell(new Position(1, 1));
+        assertEquals(grid.cell(new Position(0, 1)), grid.neighbour(cell, Direction.Left));
+        assertEquals(grid.cell(new Position(2, 1)), grid.neighbour(cell, Direction.Right));
+        assertEquals(grid.cell(new Position(1, 2)), grid.neighbour(cell, Direction.Down));
+        assertEquals(grid.cell(new Position(1, 0)), grid.above(cell));
+    }
+
+    @Test
+    public void stepsOffTheEdgeToNothing() {
+        final var grid = positionSupplier.grid(4, 3);
+        assertEquals(Grid.NONE, grid.neighbour(grid.cell(new Position(0, 1)), Direction.Left));
+        assertEquals(Grid.NONE, grid.neighbour(grid.cell(new Position(3, 1)), Direction.Right));
+        assertEquals(Grid.NONE, grid.neighbour(grid.cell(new Position(2, 2)), Direction.Down));
+        assertEquals(Grid.NONE, grid.above(grid.cell(new Position(2, 0))));
+        assertNull(grid.neighbour(new Position(0, 0), Direction.Left));
+    }
+
+    @Test
+    public void sharesGridsAndPositions() {
+        final var grid = positionSupplier.grid(30, 20);
+        assertSame(grid, positionSupplier.grid(30, 20));
+        assertSame(positionSupplier.getPosition(19, 29), grid.position(grid.cell(new Position(29, 19))));
+    }
+
+    @Test
+    public void blocksCanMoveOffTheOuterColumns() {
+        final var board = MapBoard.fromString("A  A\n####", positionSupplier, new BlockCache(), new MoveCache(10));
+        TestSupport.assertEqualContents(List.of(new Move(0, 0, Direction.Right),
+                new Move(3, 0, Direction.Left)), board.getAvailableMoves());
+    }
+}
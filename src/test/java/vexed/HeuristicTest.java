@@ -0,0 +1,52 @@
+package vexed;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class HeuristicTest {
+
+    private final BlockCache blockCache = new BlockCache();
+    private final MoveCache moveCache = new MoveCache(10);
+    private final PositionSupplier positionSupplier = new CachingPositionSupplier();
+
+    @Test
+    public void solvedBoardsNeedNoMoves() {
+        assertEquals(0, Heuristic.COLOUR_DISTANCE.estimate(board("# #")));
+    }
+
+    @Test
+    public void loneBlockCannotBeCleared() {
+        assertEquals(Heuristic.UNSOLVABLE, Heuristic.COLOUR_DISTANCE.estimate(board("#A  BB#\n#######")));
+    }
+
+    @Test
+    public void unsolvedBoardsNeedAtLeastOneMove() {
+        assertEquals(1, Heuristic.COLOUR_DISTANCE.estimate(board("#A A#\n#####")));
+    }
+
+    @Test
+    public void sumsLargestGapPerColour() {
+        final var board = board("""
+                #A A   B#
+                ##B######
+                #########""");
+        // the As need one move to meet, the Bs four
+        assertEquals(1 + 4, Heuristic.COLOUR_DISTANCE.estimate(board));
+    }
+
+    @Test
+    public void blocksSharingAColumnAreTogether() {
+        final var board = board("""
+                #A  #
+                #B  #
+                #A  #
+                #B  #
+                #####""");
+        assertEquals(1, Heuristic.COLOUR_DISTANCE.estimate(board));
+    }
+
+    private Board board(String layout) {
+        return MapBoard.fromString(layout, positionSupplier, blockCache, moveCache);
+    }
+}
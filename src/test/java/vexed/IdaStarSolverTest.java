@@ -0,0 +1,38 @@
+package vexed;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class IdaStarSolverTest extends SolverTest {
+    @Override
+    Solver getSolverInstance() {
+        return new IdaStarSolver();
+    }
+
+    /**
+     * A table far too small for the states searched still only costs time.
+     */
+    @Test
+    public void staysOptimalWithATinyTable() {
+        assertAsFewMovesAsBreadthFirstSearch(new IdaStarSolver(Heuristic.COLOUR_DISTANCE, 16));
+    }
+
+    @Test(expected = UnsolveableBoardException.class)
+    public void exhaustBoardsWithNoSolution() {
+        // no colour is down to one block, but the board can never be cleared
+        final var board = MapBoard.fromString("""
+                # BAB#
+                ##  A#
+                # AB##
+                ######""", positionSupplier, blockCache, moveCache);
+        new IdaStarSolver().solve(board);
+    }
+
+    @Override
+    @Test
+    public void solveBenchmarkBoard() {
+        final var board = build(TestBoards.BENCHMARK, BoardFactory.BIT);
+        assertEquals(13, getSolverInstance().solve(board).getMoveHistory().size());
+    }
+}
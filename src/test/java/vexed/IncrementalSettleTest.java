@@ -0,0 +1,71 @@
+package vexed;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Plays random moves on random boards and checks that settling and
+ * clearing only what a move disturbed always ends in the same board as
+ * settling and clearing everything.
+ */
+public class IncrementalSettleTest {
+    private static final int BOARDS = 500;
+    private static final int MOVES_PER_BOARD = 40;
+    private static final String SYMBOLS = "ABCD";
+
+    private final BlockCache blockCache = new BlockCache();
+    private final MoveCache moveCache = new MoveCache(10);
+    private final PositionSupplier positionSupplier = new CachingPositionSupplier();
+    private final Random random = new Random(20090);
+
+    @Test
+    public void matchesExhaustiveSettling() {
+        for (var i = 0; i < BOARDS; i++) {
+            var board = randomBoard();
+
+            for (var step = 0; step < MOVES_PER_BOARD && !board.isSolved(); step++) {
+                final var moves = new ArrayList<>(board.getAvailableMoves());
+                if (moves.isEmpty()) {
+                    break;
+                }
+
+                final var move = moves.get(random.nextInt(moves.size()));
+                final var expected = board.applyExhaustively(move);
+                final var actual = board.apply(move);
+
+                final var context = "after " + move + " on\n" + board;
+                assertEquals(context, expected.toString(), actual.toString());
+                assertEquals(context, expected.getZobristHash(), actual.getZobristHash());
+                assertEquals(context, expected.isDead(), actual.isDead());
+                board = actual;
+            }
+        }
+    }
+
+    private MapBoard randomBoard() {
+        final var width = 3 + random.nextInt(6);
+        final var height = 2 + random.nextInt(7);
+        final var builder = new MapBoard.Builder(width);
+
+        for (var row = 0; row < height; row++) {
+            final var text = new StringBuilder();
+            for (var column = 0; column < width; column++) {
+                final var roll = random.nextInt(10);
+                if (roll < 4) {
+                    text.append(' ');
+                } else if (roll < 5) {
+                    text.append(Block.WALL_SYMBOL);
+                } else {
+                    text.append(SYMBOLS.charAt(random.nextInt(SYMBOLS.length())));
+                }
+            }
+            builder.addInteriorRow(text.toString());
+        }
+
+        return builder.build(positionSupplier, blockCache, moveCache);
+    }
+}
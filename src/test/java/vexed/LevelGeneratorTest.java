@@ -0,0 +1,97 @@
+package vexed;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+public class LevelGeneratorTest {
+    private static final LevelGenerator.Spec SPEC = new LevelGenerator.Spec(6, 5, 0.15, 3, 4);
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final PositionSupplier positionSupplier = new CachingPositionSupplier();
+    private final BlockCache blockCache = new BlockCache();
+    private final MoveCache moveCache = new MoveCache(10);
+
+    @Test
+    public void levelsMeetTheSpec() {
+        final var generator = new LevelGenerator(SPEC, 7);
+
+        for (var i = 0; i < 3; i++) {
+            final var level = generator.next();
+            final var rows = level.layout().split("\n");
+            assertEquals(SPEC.height() + 1, rows.length);
+            assertEquals(SPEC.width() + 2, rows[0].length());
+
+            final Map<Character, Integer> blocks = new TreeMap<>();
+            level.layout().chars().filter(Character::isLetter).forEach(c -> blocks.merge((char) c, 1, Integer::sum));
+            assertEquals(SPEC.colours(), blocks.size());
+            blocks.values().forEach(count -> assertTrue(count == 2 || count == 3));
+
+            assertTrue(level.depth() >= SPEC.minDepth());
+            assertEquals(level.depth(), shortestSolution(level.layout()));
+        }
+    }
+
+    @Test
+    public void sameSeedGivesSameLevels() {
+        assertEquals(levels(new LevelGenerator(SPEC, 11)), levels(new LevelGenerator(SPEC, 11)));
+        assertNotEquals(levels(new LevelGenerator(SPEC, 11)), levels(new LevelGenerator(SPEC, 12)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectSpecWithoutRoom() {
+        new LevelGenerator.Spec(1, 3, 0.1, 2, 2);
+    }
+
+    @Test
+    public void corpusFilesHoldLevelsOfOneLength() throws Exception {
+        final var directory = folder.getRoot().toPath();
+        LevelGenerator.writeCorpus(directory, List.of(new LevelGenerator.Spec(5, 4, 0.15, 2, 2), SPEC), 3, 5);
+
+        final var levels = LevelPack.read(directory.resolve("v" + LevelGenerator.VERSION));
+        assertFalse(levels.isEmpty());
+        for (final var level : levels) {
+            assertEquals(level.name(), depth(level), shortestSolution(level.layout()));
+        }
+    }
+
+    @Test
+    public void checkedInCorpusIsSolvedInItsRecordedMoves() throws Exception {
+        for (final var level : LevelPack.read(Path.of("corpus", "v" + LevelGenerator.VERSION))) {
+            final var board = MapBoard.fromString(level.layout(), positionSupplier, blockCache, moveCache,
+                    BoardFactory.BIT);
+            assertEquals(level.name(), depth(level), new AStarSolver().solve(board).getMoveHistory().size());
+        }
+    }
+
+    private int shortestSolution(String layout) {
+        final var board = MapBoard.fromString(layout, positionSupplier, blockCache, moveCache);
+        return new BfsSolver().solve(board).getMoveHistory().size();
+    }
+
+    /**
+     * The solution length a corpus level is filed under, from its name
+     * such as {@code depth-07.txt#2}.
+     */
+    private static int depth(Level level) {
+        return Integer.parseInt(level.name().substring("depth-".length(), level.name().indexOf('.')));
+    }
+
+    private static List<String> levels(LevelGenerator generator) {
+        final var layouts = new ArrayList<String>();
+        for (var i = 0; i < 3; i++) {
+            layouts.add(generator.next().layout());
+        }
+        return layouts;
+    }
+}
@@ -0,0 +1,50 @@
+package vexed;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class LevelPackTest {
+    private static final String PACK = """
+            ; two levels
+            #A.A#
+            #####
+
+            
+            #A..#
+            #A..#
+            #####
+            """;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void splitLevelsOnBlankLines() {
+        assertEquals(List.of(new Level("pack#1", "#A.A#\n#####"), new Level("pack#2", "#A..#\n#A..#\n#####")),
+                LevelPack.parse("pack", PACK));
+    }
+
+    @Test
+    public void keepRowsOfSpaces() {
+        final var pack = "#   #\n#A A#\n#####\n\n     \n#A A#\n#####\n";
+
+        assertEquals(List.of(new Level("pack#1", "#   #\n#A A#\n#####"), new Level("pack#2", "     \n#A A#\n#####")),
+                LevelPack.parse("pack", pack));
+    }
+
+    @Test
+    public void readEveryFileInADirectory() throws Exception {
+        Files.writeString(folder.getRoot().toPath().resolve("b.txt"), "#B.B#\n#####\n");
+        Files.writeString(folder.getRoot().toPath().resolve("a.txt"), PACK);
+
+        final var levels = LevelPack.read(folder.getRoot().toPath());
+
+        assertEquals(List.of("a.txt#1", "a.txt#2", "b.txt#1"), levels.stream().map(Level::name).toList());
+    }
+}
@@ -14,13 +14,17 @@ public class MapBoardTest {
     private final MoveCache moveCache = new MoveCache(10);
     private final PositionSupplier positionSupplier = new CachingPositionSupplier();
 
+	BoardFactory boardFactory() {
+		return BoardFactory.MAP;
+	}
+
 	@Test
     public void mapBuilder() {
 		final var builder = new MapBoard.Builder(4);
         builder.addInteriorRow(" A  ");
         builder.addInteriorRow(" # B");
         builder.addInteriorRow("C  #");
-		final var board = builder.build(positionSupplier, blockCache, moveCache);
+		final var board = builder.build(positionSupplier, blockCache, moveCache, boardFactory());
         assertEquals(6, board.getWidth());
         assertEquals(4, board.getHeight());
     }
@@ -31,7 +35,7 @@ public class MapBoardTest {
         builder.addInteriorRow(" A  ");
         builder.addInteriorRow(" # B");
         builder.addInteriorRow("C  #");
-		final var board = builder.build(positionSupplier, blockCache, moveCache);
+		final var board = builder.build(positionSupplier, blockCache, moveCache, boardFactory());
         final Collection<Move> expectedMoves = List.of(new Move(2, 0, Left),
                                                        new Move(2, 0, Right), 
                                                        new Move(4, 1, Left), 
@@ -42,16 +46,16 @@ public class MapBoardTest {
 	@Test
 	public void emptyBoardsWithEqualDimensionsAreEqual() {
 		final var layout = new HashMap<Position, Block>();
-		final var firstBoard = new MapBoard(1, 1, layout, positionSupplier, moveCache);
-		final var secondBoard = new MapBoard(1, 1, layout, positionSupplier, moveCache);
+		final var firstBoard = newBoard(1, 1, layout);
+		final var secondBoard = newBoard(1, 1, layout);
 		assertEquals(firstBoard, secondBoard);
 	}
 
 	@Test
 	public void boardsWithDifferentDimensionsAreUnequal() {
 		final var layout = new HashMap<Position, Block>();
-		final var firstBoard = new MapBoard(5, 2, layout, positionSupplier, moveCache);
-		final var secondBoard = new MapBoard(5, 3, layout, positionSupplier, moveCache);
+		final var firstBoard = newBoard(5, 2, layout);
+		final var secondBoard = newBoard(5, 3, layout);
 		assertNotEquals(firstBoard, secondBoard);
 	}
 
@@ -60,8 +64,8 @@ public class MapBoardTest {
 		final var layout = new HashMap<Position, Block>();
 		layout.put(new Position(0, 0), Block.wall());
 		layout.put(new Position(1, 2), new Block('A'));
-		final var firstBoard = new MapBoard(4, 4, layout, positionSupplier, moveCache);
-		final var secondBoard = new MapBoard(4, 4, layout, positionSupplier, moveCache);
+		final var firstBoard = newBoard(4, 4, layout);
+		final var secondBoard = newBoard(4, 4, layout);
 		assertEquals(firstBoard, secondBoard);
 	}
 
@@ -71,14 +75,14 @@ public class MapBoardTest {
 		final var block = Block.wall();
 		final var position = new Position(1, 3);
 		layout.put(position, block);
-		final var board = new MapBoard(3, 4, layout, positionSupplier, moveCache);
+		final var board = newBoard(3, 4, layout);
 		assertEquals(block, board.getBlockAt(position));
 		assertNull(board.getBlockAt(new Position(0, 1)));
 	}
 
 	@Test
 	public void applyMoveWillNotMakeImpossibleMove() {
-		final var board = MapBoard.fromString("#A#", positionSupplier, blockCache, moveCache);
+		final var board = fromString("#A#");
 		
 		try {
 			board.apply(new Move(1, 0, Left));
@@ -93,17 +97,6 @@ public class MapBoardTest {
 		}
 	}
 
-	@Test
-    public void applyMoveRecordsMoveInHistory() {
-		final var layout = "#A #\n" +
-			               "####";
-		final var board = MapBoard.fromString(layout, positionSupplier, blockCache, moveCache);
-		final var move = new Move(1, 0, Right);
-        final Board newBoard = board.apply(move);
-        assertEquals(1, newBoard.getMoveHistory().size());
-        assertEquals(Collections.singletonList(move), newBoard.getMoveHistory().getMoves());
-    }
-
     @Test
 	public void applyMoveCanMakeSimpleMove() {
 		assertMoveResult("#A #", "# A#", new Move(1, 0, Right));
@@ -132,35 +125,18 @@ public class MapBoardTest {
         boardBuilder.addInteriorRow(" BA  ");
         boardBuilder.addInteriorRow(" ##  ");
         boardBuilder.addInteriorRow(" A  B");
-		final var board = boardBuilder.build(positionSupplier, blockCache, moveCache);
+		final var board = boardBuilder.build(positionSupplier, blockCache, moveCache, boardFactory());
 		final var newBoard = board.apply(new Move(3, 0, Right));
 
         boardBuilder = new MapBoard.Builder(5);
         boardBuilder.addInteriorRow(" B   ");
         boardBuilder.addInteriorRow(" ##  ");
         boardBuilder.addInteriorRow(" A AB");
-		final var expectedBoard = boardBuilder.build(positionSupplier, blockCache, moveCache);
+		final var expectedBoard = boardBuilder.build(positionSupplier, blockCache, moveCache, boardFactory());
         
         assertEquals(expectedBoard, newBoard);
     }
 
-	@Test
-    public void moveHistoryRetainsMoves() {
-		final var boardBuilder = new MapBoard.Builder(5);
-        boardBuilder.addInteriorRow(" BA  ");
-        boardBuilder.addInteriorRow(" ##  ");
-        boardBuilder.addInteriorRow(" A  B");
-		final var board = boardBuilder.build(positionSupplier, blockCache, moveCache);
-		final var firstMove = new Move(3, 0, Right);
-		final var firstBoard = board.apply(firstMove);
-        assertEquals(1, firstBoard.getMoveHistory().size());
-        assertEquals(Collections.singletonList(firstMove), firstBoard.getMoveHistory().getMoves());
-		final var secondMove = new Move(2, 0, Left);
-		final var secondBoard = firstBoard.apply(secondMove);
-        assertEquals(2, secondBoard.getMoveHistory().size());
-        assertEquals(List.of(firstMove, secondMove), secondBoard.getMoveHistory().getMoves());
-    }
-
 	@Test
 	public void applyMoveWithVanishingBlocks() {
 		final var layoutText =
@@ -189,7 +165,7 @@ public class MapBoardTest {
                 #.C.#
                 #ABC#
                 #####""";
-		final var boardFromString = MapBoard.fromString(builder, positionSupplier, blockCache, moveCache);
+		final var boardFromString = fromString(builder);
         final var layout = new HashMap<Position, Block>();
 		layout.put(new Position(0, 0), Block.wall());
 		layout.put(new Position(4, 0), Block.wall());
@@ -207,18 +183,79 @@ public class MapBoardTest {
 		layout.put(new Position(1, 2), new Block('A'));
 		layout.put(new Position(3, 2), new Block('C'));
 
-		final var expectedBoard = new MapBoard(5, 4, layout, positionSupplier, moveCache);
+		final var expectedBoard = newBoard(5, 4, layout);
 		assertEquals(expectedBoard, boardFromString);
 	}
 
+	@Test
+	public void boardsWithSameBlocksInDifferentPlacesHashDifferently() {
+		final var first = fromString("#AB #\n#####");
+		final var second = fromString("#A B#\n#####");
+		assertNotEquals(first, second);
+		assertNotEquals(first.getZobristHash(), second.getZobristHash());
+	}
+
+	@Test
+	public void zobristHashIsMaintainedThroughMovesAndClearing() {
+		final var board = fromString("""
+                #B   #
+                #C   #
+                ##   #
+                # C  #
+                ######""");
+		final var newBoard = board.apply(new Move(1, 1, Right));
+		final var expected = fromString("""
+                #    #
+                #B   #
+                ##   #
+                #    #
+                ######""");
+		assertEquals(expected.getZobristHash(), newBoard.getZobristHash());
+		assertArrayEquals(expected.getStateKey(), newBoard.getStateKey());
+	}
+
+	@Test
+	public void applyFlagsBoardsThatCanNoLongerBeSolved() {
+		final var board = fromString("#A A A#\n#######");
+		assertFalse(board.isDead());
+		assertTrue(board.apply(new Move(1, 0, Right)).isDead());
+		assertTrue(fromString("#D#").isDead());
+	}
+
+	@Test
+	public void packedMovesMatchAvailableMoves() {
+		final var board = fromString("""
+                #A  B#
+                #C# A#
+                #B  C#
+                ######""");
+		final var packed = new IntMoveList();
+		board.getAvailableMoves(packed);
+
+		final var moves = new ArrayList<Move>();
+		for (var i = 0; i < packed.size(); i++) {
+			moves.add(board.toMove(packed.get(i)));
+			assertEquals(board.apply(board.toMove(packed.get(i))), board.apply(packed.get(i)));
+		}
+		assertEquals(new ArrayList<>(board.getAvailableMoves()), moves);
+	}
+
 	@Test
 	public void isSolved() {
-		assertFalse(MapBoard.fromString("#A#", positionSupplier, blockCache, moveCache).isSolved());
-		assertTrue(MapBoard.fromString("# #", positionSupplier, blockCache, moveCache).isSolved());
+		assertFalse(fromString("#A#").isSolved());
+		assertTrue(fromString("# #").isSolved());
 	}
 	
+	private Board fromString(String layout) {
+		return MapBoard.fromString(layout, positionSupplier, blockCache, moveCache, boardFactory());
+	}
+
+	private Board newBoard(int width, int height, Map<Position, Block> layout) {
+		return boardFactory().create(width, height, layout, positionSupplier, blockCache, moveCache);
+	}
+
 	private void assertMoveResult(String initialLayout, String expectedLayout, Move move) {
-		final var board = MapBoard.fromString(initialLayout, positionSupplier, blockCache, moveCache);
-		assertEquals(MapBoard.fromString(expectedLayout, positionSupplier, blockCache, moveCache), board.apply(move));
+		final var board = fromString(initialLayout);
+		assertEquals(fromString(expectedLayout), board.apply(move));
 	}
 }
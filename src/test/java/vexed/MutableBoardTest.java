@@ -0,0 +1,113 @@
+package vexed;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class MutableBoardTest extends MapBoardTest {
+
+    private final BlockCache blockCache = new BlockCache();
+    private final MoveCache moveCache = new MoveCache(10);
+    private final PositionSupplier positionSupplier = new CachingPositionSupplier();
+
+    @Override
+    BoardFactory boardFactory() {
+        return (width, height, layout, positionSupplier, blockCache, moveCache) ->
+                new MutableBoard(BoardFactory.MAP.create(width, height, layout, positionSupplier, blockCache,
+                        moveCache));
+    }
+
+    @Test
+    public void unmakeUndoesAChainOfClears() {
+        final var layout = """
+                #B   #
+                #C   #
+                ##   #
+                # C  #
+                ######""";
+        final var board = new MutableBoard(MapBoard.fromString(layout, positionSupplier, blockCache, moveCache));
+        final var before = board.getStateKey();
+        final var hash = board.getZobristHash();
+
+        board.make(new Move(1, 1, Direction.Right));
+        assertEquals(MapBoard.fromString("""
+                #    #
+                #B   #
+                ##   #
+                #    #
+                ######""", positionSupplier, blockCache, moveCache), board);
+
+        board.unmake();
+        assertArrayEquals(before, board.getStateKey());
+        assertEquals(hash, board.getZobristHash());
+        assertEquals(0, board.depth());
+    }
+
+    @Test
+    public void unmakesRandomGamesBackToTheStart() {
+        final var random = new Random(20200);
+
+        for (final var interior : TestBoards.SOLVABLE) {
+            final var start = TestBoards.build(interior, positionSupplier, blockCache, moveCache, BoardFactory.MAP);
+            final var board = new MutableBoard(start);
+
+            for (var game = 0; game < 50; game++) {
+                final var played = new ArrayList<Board>();
+                Board expected = start;
+
+                for (var step = 0; step < 20; step++) {
+                    final var moves = new ArrayList<>(expected.getAvailableMoves());
+                    TestSupport.assertEqualContents(moves, board.getAvailableMoves());
+                    if (moves.isEmpty()) {
+                        break;
+                    }
+
+                    final var move = moves.get(random.nextInt(moves.size()));
+                    played.add(expected);
+                    expected = expected.apply(move);
+                    board.make(move);
+                    assertEquals(expected, board);
+                    assertEquals(expected.getZobristHash(), board.getZobristHash());
+                    assertEquals(expected.isSolved(), board.isSolved());
+                    assertEquals(expected.isDead(), board.isDead());
+                }
+
+                for (var i = played.size() - 1; i >= 0; i--) {
+                    board.unmake();
+                    assertEquals(played.get(i), board);
+                    assertEquals(played.get(i).getZobristHash(), board.getZobristHash());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void applyLeavesTheBoardAsItWas() {
+        final var board = new MutableBoard(MapBoard.fromString("#A A#\n#####", positionSupplier, blockCache,
+                moveCache));
+        final var moved = board.apply(new Move(1, 0, Direction.Right));
+        assertEquals(0, board.depth());
+        assertEquals(false, board.isSolved());
+        assertEquals(true, moved.isSolved());
+    }
+
+    @Test
+    public void movesComeFromTheMoveCache() {
+        final var board = new MutableBoard(MapBoard.fromString("#A A#\n#####", positionSupplier, blockCache,
+                moveCache));
+
+        assertSame(moveCache.moveFor(0, 1, Direction.Right), board.toMove(PackedMove.pack(1, Direction.Right)));
+        assertSame(moveCache.moveFor(0, 1, Direction.Right), board.apply(PackedMove.pack(3, Direction.Left))
+                .toMove(PackedMove.pack(1, Direction.Right)));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void nothingToUnmakeAtTheStart() {
+        new MutableBoard(MapBoard.fromString("#A A#\n#####", positionSupplier, blockCache, moveCache)).unmake();
+    }
+}
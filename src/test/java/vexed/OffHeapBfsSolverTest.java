@@ -0,0 +1,8 @@
+package vexed;
+
+public class OffHeapBfsSolverTest extends SolverTest {
+    @Override
+    Solver getSolverInstance() {
+        return new BfsSolver(VisitedSet::offHeap);
+    }
+}
@@ -0,0 +1,65 @@
+package vexed;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.LinkedList;
+
+import static org.junit.Assert.*;
+
+public class PackedVisitedSetTest {
+
+    private final BlockCache blockCache = new BlockCache();
+    private final MoveCache moveCache = new MoveCache(10);
+    private final PositionSupplier positionSupplier = new CachingPositionSupplier();
+
+    @Test
+    public void addReportsWhetherStateWasNew() {
+        final var visited = new PackedVisitedSet(false);
+        final var board = MapBoard.fromString("#A B#\n#####", positionSupplier, blockCache, moveCache);
+        assertFalse(visited.contains(board));
+        assertTrue(visited.add(board));
+        assertFalse(visited.add(MapBoard.fromString("#A B#\n#####", positionSupplier, blockCache, moveCache)));
+        assertTrue(visited.contains(board));
+        assertEquals(1, visited.size());
+    }
+
+    @Test
+    public void holdsEveryReachableStateAcrossGrowth() {
+        assertHoldsReachableStates(new PackedVisitedSet(false));
+    }
+
+    @Test
+    public void holdsEveryReachableStateOffHeap() {
+        assertHoldsReachableStates(new PackedVisitedSet(true));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsBoardsOfAnotherSize() {
+        final var visited = new PackedVisitedSet(false);
+        visited.add(MapBoard.fromString("#A#", positionSupplier, blockCache, moveCache));
+        visited.add(MapBoard.fromString("#A #", positionSupplier, blockCache, moveCache));
+    }
+
+    private void assertHoldsReachableStates(VisitedSet visited) {
+        final var root = TestBoards.build(TestBoards.EVIL, positionSupplier, blockCache, moveCache, BoardFactory.BIT);
+        final var states = new HashSet<Board>();
+        final var queue = new LinkedList<Board>();
+        queue.add(root);
+
+        while (!queue.isEmpty()) {
+            final var board = queue.poll();
+            final var added = states.add(board);
+            assertEquals(added, visited.add(board));
+            if (added) {
+                board.applyMoves().forEach(queue::add);
+            }
+        }
+
+        assertEquals(states.size(), visited.size());
+        for (final var board : states) {
+            assertTrue(visited.contains(board));
+        }
+        assertTrue(visited.bytesUsed() > (long) states.size() * root.getStateKey().length);
+    }
+}
@@ -0,0 +1,92 @@
+package vexed;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class ParallelBfsSolverTest extends SolverTest {
+    @Override
+    Solver getSolverInstance() {
+        return new ParallelBfsSolver();
+    }
+
+    @Test
+    public void findsShortestSolutionWithMoreShardsThanCores() {
+        assertAsFewMovesAsBreadthFirstSearch(new ParallelBfsSolver(7));
+    }
+
+    @Test
+    public void shardBoardsByTheirCanonicalForm() {
+        for (final var interior : TestBoards.SOLVABLE) {
+            final var board = build(interior, BoardFactory.BIT);
+            final var expected = new BfsSolver(VisitedSet::canonical).solve(board);
+            final var solution = new ParallelBfsSolver(3, VisitedSet::canonical).solve(board);
+            assertEquals(expected.getMoveHistory().size(), solution.getMoveHistory().size());
+        }
+    }
+
+    @Test(timeout = 10_000, expected = IllegalStateException.class)
+    public void failPromptlyWhenOneWorkerFails() {
+        final var board = build(TestBoards.BENCHMARK, BoardFactory.BIT);
+        final var created = new AtomicInteger();
+        new ParallelBfsSolver(4, () -> created.getAndIncrement() == 0 ? new FailingSet(50) : VisitedSet.onHeap())
+                .solve(board);
+    }
+
+    @Test
+    @Ignore
+    public void scaleWithThreads() {
+        final var board = build(TestBoards.BENCHMARK, BoardFactory.BIT);
+        final var cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%8s %10s %10s%n", "threads", "ms", "speedup");
+
+        var baseline = 0L;
+        for (var threads = 1; threads <= Math.max(cores, 4); threads++) {
+            final var start = System.nanoTime();
+            new ParallelBfsSolver(threads).solve(board);
+            final var millis = (System.nanoTime() - start) / 1_000_000;
+            if (threads == 1) {
+                baseline = millis;
+            }
+            System.out.printf("%8d %10d %10.2f%n", threads, millis, (double) baseline / millis);
+        }
+    }
+
+    /**
+     * Exact set that throws on a given add.
+     */
+    private static final class FailingSet implements VisitedSet {
+        private final VisitedSet visited = VisitedSet.onHeap();
+        private int addsLeft;
+
+        FailingSet(int failingAdd) {
+            this.addsLeft = failingAdd;
+        }
+
+        @Override
+        public boolean add(Board board) {
+            if (--addsLeft == 0) {
+                throw new IllegalStateException("visited set failed");
+            }
+            return visited.add(board);
+        }
+
+        @Override
+        public boolean contains(Board board) {
+            return visited.contains(board);
+        }
+
+        @Override
+        public int size() {
+            return visited.size();
+        }
+
+        @Override
+        public long bytesUsed() {
+            return visited.bytesUsed();
+        }
+    }
+}
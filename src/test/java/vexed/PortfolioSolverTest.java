@@ -0,0 +1,38 @@
+package vexed;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PortfolioSolverTest extends SolverTest {
+    @Override
+    Solver getSolverInstance() {
+        return new PortfolioSolver();
+    }
+
+    @Test
+    public void cancelsStrategiesThatAreStillRunning() {
+        final var cancelled = new AtomicBoolean();
+        final Solver stalled = board -> {
+            try {
+                new CountDownLatch(1).await();
+                throw new AssertionError("never released");
+            } catch (final InterruptedException e) {
+                cancelled.set(true);
+                throw new CancellationException();
+            }
+        };
+
+        final var board = build(TestBoards.EVIL, BoardFactory.BIT);
+        final var solution = new PortfolioSolver(List.of(() -> stalled, AStarSolver::new)).solve(board);
+
+        assertEquals(9, solution.getMoveHistory().size());
+        assertTrue(cancelled.get());
+    }
+}
@@ -0,0 +1,71 @@
+package vexed;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static vexed.Direction.Left;
+import static vexed.Direction.Right;
+
+public class SearchNodeTest {
+
+    private final BlockCache blockCache = new BlockCache();
+    private final MoveCache moveCache = new MoveCache(10);
+    private final PositionSupplier positionSupplier = new CachingPositionSupplier();
+
+    @Test
+    public void childRecordsMoveInHistory() {
+        final var board = MapBoard.fromString("#A #\n####", positionSupplier, blockCache, moveCache);
+        final var move = new Move(1, 0, Right);
+        final var node = SearchNode.root(board).child(move);
+        assertEquals(board.apply(move), node.getBoard());
+        assertEquals(1, node.getMoveHistory().size());
+        assertEquals(Collections.singletonList(move), node.getMoveHistory().getMoves());
+    }
+
+    @Test
+    public void moveHistoryRetainsMoves() {
+        final var boardBuilder = new MapBoard.Builder(5);
+        boardBuilder.addInteriorRow(" BA  ");
+        boardBuilder.addInteriorRow(" ##  ");
+        boardBuilder.addInteriorRow(" A  B");
+        final var root = SearchNode.root(boardBuilder.build(positionSupplier, blockCache, moveCache));
+        final var firstMove = new Move(3, 0, Right);
+        final var firstNode = root.child(firstMove);
+        assertEquals(Collections.singletonList(firstMove), firstNode.getMoveHistory().getMoves());
+        final var secondMove = new Move(2, 0, Left);
+        final var secondNode = firstNode.child(secondMove);
+        assertEquals(2, secondNode.getDepth());
+        assertEquals(List.of(firstMove, secondMove), secondNode.getMoveHistory().getMoves());
+        assertEquals(Collections.singletonList(firstMove), firstNode.getMoveHistory().getMoves());
+    }
+
+    @Test
+    public void releasedNodesKeepTheirPlaceInThePath() {
+        final var board = MapBoard.fromString("#A   #\n######", positionSupplier, blockCache, moveCache);
+        final var root = SearchNode.root(board);
+        final var first = root.child(new Move(1, 0, Right));
+        final var second = first.child(new Move(2, 0, Right));
+        root.release();
+        first.release();
+
+        assertNull(first.getBoard());
+        assertEquals(List.of(new Move(1, 0, Right), new Move(2, 0, Right)), second.getMoveHistory().getMoves());
+    }
+
+    @Test
+    public void rootHasEmptyHistory() {
+        final var root = SearchNode.root(MapBoard.fromString("#A#", positionSupplier, blockCache, moveCache));
+        assertNull(root.getParent());
+        assertEquals(0, root.getMoveHistory().size());
+    }
+
+    @Test
+    public void packedMovesRoundTrip() {
+        final var move = new Move(3, 7, Left);
+        assertEquals(move, PackedMove.unpack(PackedMove.pack(move, 9), 9));
+    }
+}
@@ -0,0 +1,105 @@
+package vexed;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class SearchStatsTest {
+
+    @Test
+    public void reportProgressEveryInterval() {
+        final var reported = new ArrayList<Long>();
+        final var stats = new SearchStats(new SearchListener() {
+            @Override
+            public void progress(SearchStats stats) {
+                reported.add(stats.getNodesExpanded());
+            }
+        });
+
+        for (var i = 0; i < 2 * SearchStats.PROGRESS_INTERVAL + 1; i++) {
+            stats.expanded(0);
+        }
+
+        assertEquals(List.of((long) SearchStats.PROGRESS_INTERVAL, 2L * SearchStats.PROGRESS_INTERVAL), reported);
+    }
+
+    @Test
+    public void reportEachNewDepthOnce() {
+        final var reported = new ArrayList<Integer>();
+        final var stats = new SearchStats(new SearchListener() {
+            @Override
+            public void depthReached(int depth, SearchStats stats) {
+                reported.add(depth);
+            }
+        });
+
+        stats.generated(0);
+        stats.generated(1);
+        stats.generated(1);
+        stats.generated(2);
+        stats.generated(1);
+
+        assertEquals(List.of(0, 1, 2), reported);
+    }
+
+    @Test
+    public void countStatesExpandedAtEachDepth() {
+        final var stats = new SearchStats();
+        stats.generated(0);
+        stats.expanded(0);
+        stats.generated(1);
+        stats.generated(1);
+        stats.generated(1);
+        stats.duplicate();
+        stats.expanded(1);
+        stats.expanded(1);
+
+        assertEquals(1, stats.getFrontierSize(0));
+        assertEquals(2, stats.getFrontierSize(1));
+        assertEquals(0, stats.getFrontierSize(3));
+
+        stats.newIteration();
+        assertEquals(0, stats.getFrontierSize(1));
+        assertEquals(4, stats.getNodesGenerated());
+    }
+
+    @Test
+    public void snapshotsDoNotChange() {
+        final var stats = new SearchStats();
+        stats.expanded(0);
+        stats.generated(0);
+        final var snapshot = stats.snapshot();
+
+        stats.expanded(1);
+        stats.generated(1);
+        stats.pruned();
+
+        assertEquals(1, snapshot.getNodesExpanded());
+        assertEquals(0, snapshot.getMaxDepth());
+        assertEquals(0, snapshot.getPruned());
+        assertEquals(snapshot.getElapsedNanos(), snapshot.getElapsedNanos());
+    }
+
+    @Test
+    public void addCountsFromOtherSearches() {
+        final var first = new SearchStats();
+        first.generated(0);
+        first.generated(1);
+        first.expanded(1);
+        final var second = new SearchStats();
+        second.generated(1);
+        second.generated(2);
+        second.expanded(1);
+        second.duplicate();
+
+        first.add(second);
+
+        assertEquals(4, first.getNodesGenerated());
+        assertEquals(2, first.getFrontierSize(1));
+        assertEquals(2, first.getMaxDepth());
+        assertEquals(1, first.getDuplicates());
+    }
+}
@@ -0,0 +1,112 @@
+package vexed;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class SolutionStoreTest {
+    private final MoveCache moveCache = new MoveCache(10);
+    private final BlockCache blockCache = new BlockCache();
+    private final PositionSupplier positionSupplier = new CachingPositionSupplier();
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private Board build(String[] interiorRows, BoardFactory boardFactory) {
+        return TestBoards.build(interiorRows, positionSupplier, blockCache, moveCache, boardFactory);
+    }
+
+    private Path file() {
+        return folder.getRoot().toPath().resolve("solutions");
+    }
+
+    @Test
+    public void storeEveryBoardAlongTheSolution() throws Exception {
+        final var board = build(TestBoards.EVIL, BoardFactory.MAP);
+        final var moves = new AStarSolver().solve(board).getMoveHistory().getMoves();
+
+        try (var store = SolutionStore.open(file())) {
+            store.putSolution(board, moves);
+            assertEquals(moves.size() + 1, store.size());
+        }
+
+        try (var store = SolutionStore.open(file())) {
+            var current = build(TestBoards.EVIL, BoardFactory.BIT);
+            for (var i = 0; i < moves.size(); i++) {
+                assertEquals(new SolutionStore.Entry(moves.size() - i, moves.get(i)), store.lookup(current));
+                current = current.apply(moves.get(i));
+            }
+            assertEquals(new SolutionStore.Entry(0, null), store.lookup(current));
+        }
+    }
+
+    @Test
+    public void storeUnsolvableBoards() throws Exception {
+        final var board = build(new String[]{"A B "}, BoardFactory.MAP);
+
+        try (var store = SolutionStore.open(file())) {
+            assertNull(store.lookup(board));
+            store.putUnsolvable(board);
+            assertEquals(SolutionStore.UNSOLVABLE, store.lookup(board).distance());
+        }
+    }
+
+    @Test
+    public void keepStoringWhenBucketsFill() throws Exception {
+        final var board = build(TestBoards.EVIL, BoardFactory.MAP);
+        final var moves = new AStarSolver().solve(board).getMoveHistory().getMoves();
+
+        try (var store = SolutionStore.open(file(), 1)) {
+            store.putSolution(board, moves);
+            assertEquals(8, store.size());
+            assertEquals(moves.size(), store.lookup(board).distance());
+        }
+    }
+
+    @Test
+    public void forgetRecordsOfACommitThatDidNotFinish() throws Exception {
+        final var board = build(TestBoards.HELLISH, BoardFactory.MAP);
+        final var moves = new AStarSolver().solve(board).getMoveHistory().getMoves();
+        long emptyLogEnd;
+
+        try (var store = SolutionStore.open(file())) {
+            emptyLogEnd = readLogEnd();
+            store.putSolution(board, moves);
+        }
+
+        // as if the process died after publishing the slots but before moving the end of the log
+        try (var file = new RandomAccessFile(file().toFile(), "rw")) {
+            file.seek(16);
+            file.writeLong(emptyLogEnd);
+        }
+
+        try (var store = SolutionStore.open(file())) {
+            assertNull(store.lookup(board));
+            store.putSolution(board, moves);
+            assertEquals(moves.size(), store.lookup(board).distance());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void refuseFilesThatAreNotStores() throws Exception {
+        Files.writeString(file(), "not a store, but long enough to have a header of sixty-four bytes in it");
+
+        SolutionStore.open(file()).close();
+    }
+
+    private long readLogEnd() throws Exception {
+        try (var file = new RandomAccessFile(file().toFile(), "r")) {
+            file.seek(16);
+            return file.readLong();
+        }
+    }
+}
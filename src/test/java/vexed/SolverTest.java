@@ -4,20 +4,52 @@ import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public abstract class SolverTest {
 
     private Solver solver;
-    private final MoveCache moveCache = new MoveCache(10);
-    private final BlockCache blockCache = new BlockCache();
-    private final PositionSupplier positionSupplier = new CachingPositionSupplier();
+    protected final MoveCache moveCache = new MoveCache(10);
+    protected final BlockCache blockCache = new BlockCache();
+    protected final PositionSupplier positionSupplier = new CachingPositionSupplier();
 
     abstract Solver getSolverInstance();
 
+    BoardFactory getBoardFactory() {
+        return BoardFactory.MAP;
+    }
+
+    protected Board build(String[] interiorRows) {
+        return build(interiorRows, getBoardFactory());
+    }
+
+    protected Board build(String[] interiorRows, BoardFactory boardFactory) {
+        return TestBoards.build(interiorRows, positionSupplier, blockCache, moveCache, boardFactory);
+    }
+
+    /**
+     * Checks that the solver needs no more moves than breadth-first search
+     * on any of the solvable test boards.
+     */
+    protected void assertAsFewMovesAsBreadthFirstSearch(Solver candidate) {
+        for (final var interior : TestBoards.SOLVABLE) {
+            final var board = build(interior, BoardFactory.BIT);
+            assertEquals(new BfsSolver().solve(board).getMoveHistory().size(),
+                    candidate.solve(board).getMoveHistory().size());
+        }
+    }
+
     @Before
     public void setup() {
         solver = getSolverInstance();
@@ -25,22 +57,14 @@ public abstract class SolverTest {
 
     @Test
     public void solveTrivialBoard() {
-        final var boardBuilder = new MapBoard.Builder(3);
-        boardBuilder.addInteriorRow(" A ");
-        boardBuilder.addInteriorRow(" # ");
-        boardBuilder.addInteriorRow("A  ");
-        final Board board = boardBuilder.build(positionSupplier, blockCache, moveCache);
+        final var board = build(TestBoards.TRIVIAL);
         final var moves = solver.solve(board).getMoveHistory();
         assertEquals(Collections.singletonList(new Move(2, 0, Direction.Left)), moves.getMoves());
     }
 
     @Test
     public void solveNonTrivialBoard() {
-        final var boardBuilder = new MapBoard.Builder(5);
-        boardBuilder.addInteriorRow(" BA  ");
-        boardBuilder.addInteriorRow(" ##  ");
-        boardBuilder.addInteriorRow("  A B");
-        final Board board = boardBuilder.build(positionSupplier, blockCache, moveCache);
+        final var board = build(TestBoards.NON_TRIVIAL);
         final var moves = solver.solve(board).getMoveHistory();
         assertEquals(Arrays.asList(new Move(3, 0, Direction.Right),
                 new Move(2, 0, Direction.Right),
@@ -49,46 +73,121 @@ public abstract class SolverTest {
 
     @Test
     public void solveHellishBoard() {
-        final var boardBuilder = new MapBoard.Builder(6);
-        boardBuilder.addInteriorRow("   C  ");
-        boardBuilder.addInteriorRow("  BA  ");
-        boardBuilder.addInteriorRow("  ##  ");
-        boardBuilder.addInteriorRow("  A BC");
-        final Board board = boardBuilder.build(positionSupplier, blockCache, moveCache);
+        final var board = build(TestBoards.HELLISH);
         System.out.println(solver.solve(board));
     }
 
     @Test
     public void solveEvilBoard() {
-        final var builder = new MapBoard.Builder(5);
-        builder.addInteriorRow("  Y  ");
-        builder.addInteriorRow(" ZX X");
-        builder.addInteriorRow(" ## #");
-        builder.addInteriorRow(" XZ  ");
-        builder.addInteriorRow("###YZ");
-        final Board board = builder.build(positionSupplier, blockCache, moveCache);
+        final var board = build(TestBoards.EVIL);
         System.out.println(solver.solve(board));
     }
 
+    @Test
+    public void findsAsFewMovesAsBreadthFirstSearch() {
+        assertAsFewMovesAsBreadthFirstSearch(solver);
+    }
+
+    @Test
+    public void solveTwiceWithOneInstance() {
+        final var board = build(TestBoards.EVIL);
+        final var first = solver.solve(board).getMoveHistory().size();
+        assertEquals(first, solver.solve(board).getMoveHistory().size());
+        assertEquals(first, solver.solve(build(TestBoards.EVIL)).getMoveHistory().size());
+    }
+
+    @Test
+    public void solveConcurrentlyWithOneInstance() throws Exception {
+        final var board = build(TestBoards.EVIL);
+        final var expected = solver.solve(board).getMoveHistory().size();
+        final var solves = new ArrayList<CompletableFuture<Solution>>();
+        for (var i = 0; i < 4; i++) {
+            solves.add(CompletableFuture.supplyAsync(() -> solver.solve(board)));
+        }
+
+        for (final var solve : solves) {
+            assertEquals(expected, solve.get().getMoveHistory().size());
+        }
+    }
+
+    @Test
+    public void pruneBoardsThatCannotBeSolved() {
+        final var board = build(TestBoards.EVIL);
+        assertTrue(solver.solve(board).getNumPruned() > 0);
+    }
+
+    @Test
+    public void reportSearchStatistics() {
+        final var board = build(TestBoards.EVIL);
+        final var depths = Collections.synchronizedSet(new HashSet<Integer>());
+        final var solution = solver.solve(board, new SearchListener() {
+            @Override
+            public void depthReached(int depth, SearchStats stats) {
+                depths.add(depth);
+            }
+        });
+
+        final var stats = solution.getStats();
+        final var moves = solution.getMoveHistory().size();
+        assertTrue(depths.contains(moves));
+        assertTrue(stats.getNodesExpanded() > 0);
+        assertTrue(stats.getNodesGenerated() > stats.getNodesExpanded());
+        assertTrue(stats.getPeakVisited() > 0);
+        assertEquals(1, stats.getFrontierSize(0));
+        assertTrue(stats.getMaxDepth() >= moves);
+    }
+
+    @Test
+    public void stopWhenInterrupted() {
+        final var board = build(TestBoards.HELLISH);
+        Thread.currentThread().interrupt();
+        try {
+            solver.solve(board);
+            fail("expected cancellation");
+        } catch (final CancellationException ignored) {
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    public void solveAsync() throws Exception {
+        final var board = build(TestBoards.NON_TRIVIAL);
+        assertEquals(3, solver.solveAsync(board, Duration.ofMinutes(1)).get().getMoveHistory().size());
+    }
+
+    @Test
+    public void solveAsyncReportsUnsolvableBoards() throws Exception {
+        final var board = MapBoard.fromString("#D#", positionSupplier, blockCache, moveCache, getBoardFactory());
+        try {
+            solver.solveAsync(board, Duration.ofMinutes(1)).get();
+            fail("expected no solution");
+        } catch (final ExecutionException e) {
+            assertTrue(String.valueOf(e.getCause()), e.getCause() instanceof UnsolveableBoardException);
+        }
+    }
+
+    @Test
+    public void giveUpAtTheDeadline() throws Exception {
+        final var board = build(TestBoards.BENCHMARK);
+        try {
+            solver.solveAsync(board, Duration.ofMillis(1)).get();
+            fail("expected the deadline to pass");
+        } catch (final ExecutionException e) {
+            assertTrue(String.valueOf(e.getCause()), e.getCause() instanceof DeadlineExceededException);
+        }
+    }
+
     @Test
     @Ignore
     public void solveBenchmarkBoard() {
-        final var builder = new MapBoard.Builder(8);
-        builder.addInteriorRow("D      B");
-        builder.addInteriorRow("#      #");
-        builder.addInteriorRow("  #A    ");
-        builder.addInteriorRow("   H#BE ");
-        builder.addInteriorRow("   C ## ");
-        builder.addInteriorRow("   #    ");
-        builder.addInteriorRow(" # #    ");
-        builder.addInteriorRow("H  D#EAC");
-        final var board = builder.build(positionSupplier, blockCache, moveCache);
+        final var board = build(TestBoards.BENCHMARK);
         System.out.println(solver.solve(board));
     }
 
     @Test(expected = UnsolveableBoardException.class)
     public void recognizeImpossibleToSolveBoard() {
-        final var board = MapBoard.fromString("#D#", positionSupplier, blockCache, moveCache);
+        final var board = MapBoard.fromString("#D#", positionSupplier, blockCache, moveCache, getBoardFactory());
         solver.solve(board);
     }
 
@@ -99,7 +198,7 @@ public abstract class SolverTest {
                 ##  #
                 #  B#
                 #####""",
-                positionSupplier, blockCache, moveCache);
+                positionSupplier, blockCache, moveCache, getBoardFactory());
         solver.solve(board);
     }
 }
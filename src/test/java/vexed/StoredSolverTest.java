@@ -0,0 +1,90 @@
+package vexed;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StoredSolverTest extends SolverTest {
+    private SolutionStore store;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Override
+    Solver getSolverInstance() {
+        try {
+            store = SolutionStore.open(folder.getRoot().toPath().resolve("solutions"));
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new StoredSolver(new AStarSolver(), store);
+    }
+
+    @After
+    public void closeStore() throws IOException {
+        store.close();
+    }
+
+    @Test
+    public void answerFromTheStoreWithoutSearching() {
+        final var board = build(TestBoards.EVIL, BoardFactory.MAP);
+        final var searched = new StoredSolver(new AStarSolver(), store).solve(board);
+
+        final var stored = new StoredSolver(new AStarSolver(), store).solve(board);
+
+        assertEquals(searched.getMoveHistory().getMoves(), stored.getMoveHistory().getMoves());
+        assertEquals(0, stored.getStats().getNodesExpanded());
+    }
+
+    @Test
+    public void answerBoardsAlongAStoredSolution() {
+        final var board = build(TestBoards.EVIL, BoardFactory.BIT);
+        final var moves = new StoredSolver(new AStarSolver(), store).solve(board).getMoveHistory().getMoves();
+        final var halfway = board.apply(moves.get(0)).apply(moves.get(1));
+
+        final var stored = new StoredSolver(new AStarSolver(), store).solve(halfway);
+
+        assertEquals(moves.subList(2, moves.size()), stored.getMoveHistory().getMoves());
+        assertEquals(0, stored.getStats().getNodesExpanded());
+    }
+
+    @Test(expected = UnsolveableBoardException.class)
+    public void rememberUnsolvableBoards() {
+        final var board = build(new String[]{"A B "}, BoardFactory.MAP);
+        try {
+            new StoredSolver(new AStarSolver(), store).solve(board);
+        } catch (final UnsolveableBoardException expected) {
+        }
+
+        new StoredSolver((Solver) b -> {
+            throw new AssertionError("should not search");
+        }, store).solve(board);
+    }
+
+    @Test
+    public void keepOnlyExactAnswers() {
+        final var board = build(TestBoards.EVIL, BoardFactory.BIT);
+        final List<Solver> approximate = List.of(
+                new BfsSolver(() -> VisitedSet.approximate(8, 0.5)),
+                new AStarSolver(Heuristic.COLOUR_DISTANCE, () -> VisitedSet.approximate(8, 0.5)),
+                new ParallelBfsSolver(3, () -> VisitedSet.approximate(8, 0.5)));
+
+        for (final var solver : approximate) {
+            try {
+                assertTrue(new StoredSolver(solver, store).solve(board).getErrorProbability() > 0);
+            } catch (final UnsolveableBoardException e) {
+                assertTrue(e.getErrorProbability() > 0);
+            }
+        }
+
+        assertEquals(0, store.size());
+    }
+}
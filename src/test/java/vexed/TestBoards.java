@@ -0,0 +1,65 @@
+package vexed;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interiors of the boards used across the solver tests and benchmarks.
+ */
+final class TestBoards {
+    static final String[] TRIVIAL = {
+            " A ",
+            " # ",
+            "A  "};
+    static final String[] NON_TRIVIAL = {
+            " BA  ",
+            " ##  ",
+            "  A B"};
+    static final String[] HELLISH = {
+            "   C  ",
+            "  BA  ",
+            "  ##  ",
+            "  A BC"};
+    static final String[] EVIL = {
+            "  Y  ",
+            " ZX X",
+            " ## #",
+            " XZ  ",
+            "###YZ"};
+    static final String[] BENCHMARK = {
+            "D      B",
+            "#      #",
+            "  #A    ",
+            "   H#BE ",
+            "   C ## ",
+            "   #    ",
+            " # #    ",
+            "H  D#EAC"};
+
+    /**
+     * The boards every solver is expected to solve quickly.
+     */
+    static final List<String[]> SOLVABLE = List.of(TRIVIAL, NON_TRIVIAL, HELLISH, EVIL);
+
+    /**
+     * Every board by name, from trivial up to the benchmark board.
+     */
+    static final Map<String, String[]> CORPUS = Map.of(
+            "TRIVIAL", TRIVIAL,
+            "NON_TRIVIAL", NON_TRIVIAL,
+            "HELLISH", HELLISH,
+            "EVIL", EVIL,
+            "BENCHMARK", BENCHMARK);
+
+    private TestBoards() {
+    }
+
+    static Board build(String[] interiorRows, PositionSupplier positionSupplier, BlockCache blockCache,
+                       MoveCache moveCache, BoardFactory boardFactory) {
+        final var builder = new MapBoard.Builder(interiorRows[0].length());
+        for (final var row : interiorRows) {
+            builder.addInteriorRow(row);
+        }
+        return builder.build(positionSupplier, blockCache, moveCache, boardFactory);
+    }
+}